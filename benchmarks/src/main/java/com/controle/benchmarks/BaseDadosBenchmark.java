@@ -0,0 +1,153 @@
+package com.controle.benchmarks;
+
+import com.controle.dao.GastoCategoriaMesDAO;
+import com.controle.dao.IndiceBuscaDAO;
+import com.controle.dao.SaldoContaDAO;
+import com.controle.dao.TransacaoDAO;
+import com.controle.service.GastoPessoalService;
+import com.controle.util.DatabaseConnection;
+import com.controle.util.SchemaMigrations;
+import com.controle.util.TokenizadorBusca;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+// Banco H2 embutido em arquivo, um por tamanho, aberto pelo próprio DatabaseConnection (config.properties
+// dos benchmarks com db.tipo=h2) e criado pelas migrações do aplicativo (SchemaMigrations). A carga é feita
+// uma única vez (INSERT ... SELECT sobre SYSTEM_RANGE) e reaproveitada nas execuções seguintes; apague o
+// diretório (-Dbenchmarks.dados, padrão target/bench-db) para recriar. O DatabaseConnection lê a
+// configuração uma vez por JVM, por isso cada tamanho precisa do seu fork (não rode com -f 0).
+@State(Scope.Benchmark)
+public class BaseDadosBenchmark {
+
+    static final LocalDate PRIMEIRO_DIA = LocalDate.of(2022, 1, 1);
+    static final LocalDate ULTIMO_DIA = LocalDate.of(2024, 12, 31);
+    static final int DIAS = 1096;
+    static final int CONTAS = 5;
+    static final int CATEGORIAS_DESPESA = 20;
+    static final int CATEGORIAS_RECEITA = 10;
+    static final int REGRAS_RECORRENTES = 200;
+
+    static final String[] FRASES = {
+            "Mercado semanal", "Padaria do bairro", "Almoço no restaurante", "Combustível posto",
+            "Farmácia drogaria", "Aluguel apartamento", "Conta de luz", "Conta de água",
+            "Internet fibra", "Plano de celular", "Academia mensalidade", "Streaming de vídeo",
+            "Uber corrida", "Cinema com amigos", "Livraria centro", "Presente aniversário",
+            "Consulta médica", "Pet shop ração", "Manutenção do carro", "Seguro residencial",
+            "Salário empresa", "Freelance projeto", "Rendimento poupança", "Reembolso despesas"
+    };
+
+    @Param({"10000", "1000000", "10000000"})
+    public int transacoes;
+
+    Connection conn;
+    SaldoContaDAO saldoContaDAO;
+    GastoCategoriaMesDAO gastoCategoriaMesDAO;
+    TransacaoDAO transacaoDAO;
+    GastoPessoalService service;
+
+    @Setup(Level.Trial)
+    public void abrir() throws SQLException {
+        File diretorio = new File(System.getProperty("benchmarks.dados", "target/bench-db"));
+        diretorio.mkdirs();
+        System.setProperty("db.arquivo", new File(diretorio, "transacoes-" + transacoes).getAbsolutePath());
+        conn = DatabaseConnection.getConnection();
+
+        saldoContaDAO = new SaldoContaDAO();
+        gastoCategoriaMesDAO = new GastoCategoriaMesDAO();
+        transacaoDAO = new TransacaoDAO(saldoContaDAO, gastoCategoriaMesDAO, new IndiceBuscaDAO());
+
+        if (!carregado()) {
+            carregar();
+        }
+        service = new GastoPessoalService();
+    }
+
+    @TearDown(Level.Trial)
+    public void fechar() throws SQLException {
+        conn.close();
+    }
+
+    private boolean carregado() throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'BENCH_CARGA'")) {
+            rs.next();
+            if (rs.getInt(1) == 0) {
+                return false;
+            }
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT transacoes FROM bench_carga")) {
+            return rs.next() && rs.getInt(1) == transacoes;
+        }
+    }
+
+    private void carregar() throws SQLException {
+        long inicio = System.nanoTime();
+        System.out.println("Carregando " + transacoes + " transações no banco de benchmark...");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            SchemaMigrations.migrar(conn);
+            stmt.execute("CREATE TABLE bench_frases (id INT PRIMARY KEY, descricao NVARCHAR(100) NOT NULL)");
+            stmt.execute("CREATE TABLE bench_frases_termos (frase_id INT NOT NULL, termo NVARCHAR(64) NOT NULL)");
+
+            stmt.execute("INSERT INTO contas (id, nome, saldo_inicial, tipo) " +
+                    "SELECT X, 'Conta ' || X, 1000.00 * X, 'CONTA_CORRENTE' FROM SYSTEM_RANGE(1, " + CONTAS + ")");
+            stmt.execute("INSERT INTO categorias (id, nome, tipo) " +
+                    "SELECT X, 'Despesa ' || X, 'DESPESA' FROM SYSTEM_RANGE(1, " + CATEGORIAS_DESPESA + ")");
+            stmt.execute("INSERT INTO categorias (id, nome, tipo) " +
+                    "SELECT X, 'Receita ' || X, 'RECEITA' FROM SYSTEM_RANGE(" + (CATEGORIAS_DESPESA + 1) + ", " + (CATEGORIAS_DESPESA + CATEGORIAS_RECEITA) + ")");
+            carregarFrases();
+
+            // Uma receita a cada cinco lançamentos; ids explícitos para o índice de busca sair de um JOIN
+            stmt.execute("INSERT INTO transacoes (id, descricao, valor, data, tipo, categoria_id, conta_id) " +
+                    "SELECT r.X, f.descricao, 1 + MOD(r.X * 7919, 50000) / 100.0, DATEADD('DAY', MOD(r.X, " + DIAS + "), DATE '" + PRIMEIRO_DIA + "'), " +
+                    "CASE WHEN MOD(r.X, 5) = 0 THEN 'RECEITA' ELSE 'DESPESA' END, " +
+                    "CASE WHEN MOD(r.X, 5) = 0 THEN " + (CATEGORIAS_DESPESA + 1) + " + MOD(r.X, " + CATEGORIAS_RECEITA + ") ELSE 1 + MOD(r.X, " + CATEGORIAS_DESPESA + ") END, " +
+                    "1 + MOD(r.X, " + CONTAS + ") " +
+                    "FROM SYSTEM_RANGE(1, " + transacoes + ") r JOIN bench_frases f ON f.id = MOD(r.X, " + FRASES.length + ")");
+            stmt.execute("ALTER TABLE transacoes ALTER COLUMN id RESTART WITH " + (transacoes + 1));
+            stmt.execute("INSERT INTO indice_busca (entidade, termo, entidade_id) " +
+                    "SELECT 'T', ft.termo, t.id FROM transacoes t JOIN bench_frases_termos ft ON ft.frase_id = MOD(t.id, " + FRASES.length + ")");
+
+            stmt.execute("INSERT INTO transacoes_recorrentes (descricao, valor, tipo, categoria_id, conta_id, dia_do_mes, data_inicio) " +
+                    "SELECT 'Recorrente ' || X, 99.90, 'DESPESA', 1 + MOD(X, " + CATEGORIAS_DESPESA + "), 1 + MOD(X, " + CONTAS + "), " +
+                    "1 + MOD(X, 31), DATE '" + ULTIMO_DIA.plusDays(1) + "' FROM SYSTEM_RANGE(1, " + REGRAS_RECORRENTES + ")");
+
+            saldoContaDAO.rebuild(conn);
+            gastoCategoriaMesDAO.rebuild(conn);
+
+            stmt.execute("CREATE TABLE bench_carga (transacoes INT NOT NULL)");
+            stmt.execute("INSERT INTO bench_carga VALUES (" + transacoes + ")");
+        }
+        System.out.printf("Carga concluída em %.1f s.%n", (System.nanoTime() - inicio) / 1e9);
+    }
+
+    private void carregarFrases() throws SQLException {
+        try (PreparedStatement frase = conn.prepareStatement("INSERT INTO bench_frases (id, descricao) VALUES (?, ?)");
+             PreparedStatement termo = conn.prepareStatement("INSERT INTO bench_frases_termos (frase_id, termo) VALUES (?, ?)")) {
+            for (int i = 0; i < FRASES.length; i++) {
+                frase.setInt(1, i);
+                frase.setString(2, FRASES[i]);
+                frase.addBatch();
+                for (String t : TokenizadorBusca.termos(FRASES[i])) {
+                    termo.setInt(1, i);
+                    termo.setString(2, t);
+                    termo.addBatch();
+                }
+            }
+            frase.executeBatch();
+            termo.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.controle.benchmarks;
+
+import com.controle.model.Transacao;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// calcularDespesasPorCategoria, getPatrimonioEvolucao, getSaldoAtual e listarTransacoesPorTermo do
+// GastoPessoalService, com conexões do pool do aplicativo sobre o banco H2 do BaseDadosBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsultasBenchmark {
+
+    private static final LocalDate INICIO_ANO = LocalDate.of(2024, 1, 1);
+
+    @Benchmark
+    public Map<String, Long> despesasPorCategoria(BaseDadosBenchmark base) {
+        return base.service.calcularDespesasPorCategoria(INICIO_ANO, BaseDadosBenchmark.ULTIMO_DIA);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Long> patrimonioEvolucao(BaseDadosBenchmark base) {
+        return base.service.getPatrimonioEvolucao(INICIO_ANO, BaseDadosBenchmark.ULTIMO_DIA);
+    }
+
+    @Benchmark
+    public long saldoAtual(BaseDadosBenchmark base) {
+        return base.service.getSaldoAtual(1);
+    }
+
+    @Benchmark
+    public List<Transacao> buscaPorTermo(BaseDadosBenchmark base) {
+        return base.service.listarTransacoesPorTermo("farm drog");
+    }
+}
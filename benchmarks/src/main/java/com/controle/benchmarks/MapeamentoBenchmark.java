@@ -0,0 +1,44 @@
+package com.controle.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Vazão do mapeamento ResultSet -> Transacao (mapResultSetToTransacao, com categorias e contas
+// reaproveitadas pelo MapeamentoReferencias), lendo uma janela de datas com ~10 mil linhas em
+// qualquer tamanho de base para o resultado ser comparável entre os tamanhos
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeamentoBenchmark {
+
+    private static final int LINHAS_POR_JANELA = 10_000;
+
+    private LocalDate inicioJanela;
+
+    @Setup(Level.Trial)
+    public void definirJanela(BaseDadosBenchmark base) {
+        double linhasPorDia = (double) base.transacoes / BaseDadosBenchmark.DIAS;
+        long dias = Math.max(1, Math.min(BaseDadosBenchmark.DIAS, (long) Math.ceil(LINHAS_POR_JANELA / linhasPorDia)));
+        inicioJanela = BaseDadosBenchmark.ULTIMO_DIA.minusDays(dias - 1);
+    }
+
+    @Benchmark
+    public void mapearTransacoes(BaseDadosBenchmark base, Blackhole blackhole) {
+        base.transacaoDAO.streamBetween(inicioJanela, BaseDadosBenchmark.ULTIMO_DIA, null, base.conn, blackhole::consume);
+    }
+}
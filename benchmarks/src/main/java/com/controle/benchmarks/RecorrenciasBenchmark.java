@@ -0,0 +1,60 @@
+package com.controle.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// processarTransacoesRecorrentes do serviço: as 200 regras começam depois do último dia da carga e ficam
+// pendentes até hoje, fora das janelas do ConsultasBenchmark. O serviço confirma a transação, então antes
+// de cada invocação os lançamentos anteriores (ids acima da carga) são desfeitos nas projeções, no índice
+// de busca e nas regras
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecorrenciasBenchmark {
+
+    @Setup(Level.Invocation)
+    public void desfazerLancamentos(BaseDadosBenchmark base) throws SQLException {
+        base.conn.setAutoCommit(false);
+        try (Statement stmt = base.conn.createStatement()) {
+            String lancadas = "SELECT * FROM transacoes WHERE id > " + base.transacoes;
+            stmt.executeUpdate("MERGE INTO saldos_conta s USING (" +
+                    "SELECT conta_id, SUM(CASE tipo WHEN 'RECEITA' THEN valor ELSE -valor END) AS delta FROM (" + lancadas + ") t " +
+                    "GROUP BY conta_id) o ON s.conta_id = o.conta_id " +
+                    "WHEN MATCHED THEN UPDATE SET saldo = s.saldo - o.delta");
+            stmt.executeUpdate("MERGE INTO gastos_categoria_mes g USING (" +
+                    "SELECT categoria_id, YEAR(data) AS ano, MONTH(data) AS mes, SUM(valor) AS delta FROM (" + lancadas + ") t " +
+                    "WHERE tipo = 'DESPESA' GROUP BY categoria_id, YEAR(data), MONTH(data)) o " +
+                    "ON g.categoria_id = o.categoria_id AND g.ano = o.ano AND g.mes = o.mes " +
+                    "WHEN MATCHED THEN UPDATE SET total = g.total - o.delta");
+            stmt.executeUpdate("DELETE FROM indice_busca WHERE entidade = 'T' AND entidade_id > " + base.transacoes);
+            stmt.executeUpdate("DELETE FROM transacoes WHERE id > " + base.transacoes);
+            stmt.executeUpdate("UPDATE transacoes_recorrentes SET data_ultimo_processamento = NULL");
+            base.conn.commit();
+        } catch (SQLException e) {
+            base.conn.rollback();
+            throw e;
+        } finally {
+            base.conn.setAutoCommit(true);
+        }
+    }
+
+    @Benchmark
+    public int lancarRecorrencias(BaseDadosBenchmark base) {
+        return base.service.processarTransacoesRecorrentes();
+    }
+}
@@ -77,6 +77,12 @@ public class App extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        System.out.println("Cache de referências: " + GastoPessoalService.getCacheReferencias());
+        DatabaseConnection.shutdownPool();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -7,6 +7,7 @@ import com.controle.model.TipoConta;
 import com.controle.model.Transacao;
 import com.controle.service.GastoPessoalService;
 import com.controle.util.DatabaseConnection;
+import com.controle.util.Dinheiro;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -18,7 +19,7 @@ public class MainApp {
 
         try {
             DatabaseConnection.createTables();
-            System.out.println("Tabelas verificadas/criadas no SQL Server.");
+            System.out.println("Tabelas verificadas/criadas no banco de dados.");
         } catch (Exception e) {
             System.err.println("Erro ao criar/verificar tabelas: " + e.getMessage());
             return;
@@ -27,10 +28,17 @@ public class MainApp {
         GastoPessoalService service = new GastoPessoalService();
         System.out.println("\nServiço de Gastos Pessoais inicializado.");
 
+        if (args.length > 0 && "--reconstruir-saldos".equals(args[0])) {
+            System.out.println("\n--- Reconstruindo Saldos das Contas e Gastos por Categoria ---");
+            service.reconstruirSaldosContas();
+            service.reconstruirGastosCategorias();
+            return;
+        }
+
         System.out.println("\n--- Adicionando Contas Default ---");
         Conta contaDefault = null;
         try {
-            contaDefault = service.adicionarConta(new Conta("Dinheiro", 0.0, TipoConta.DINHEIRO));
+            contaDefault = service.adicionarConta(new Conta("Dinheiro", 0L, TipoConta.DINHEIRO));
         } catch (RuntimeException e) {
             System.err.println(e.getMessage());
             contaDefault = service.listarContasPorTermo("Dinheiro").get(0);
@@ -54,14 +62,14 @@ public class MainApp {
 
         System.out.println("\n--- Adicionando Transações ---");
         try {
-            service.adicionarTransacao("Salário Mensal", 3000.00, LocalDate.of(2025, 5, 30), TipoCategoria.RECEITA, "Salário", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Almoço no restaurante", 45.50, LocalDate.of(2025, 6, 1), TipoCategoria.DESPESA, "Alimentação", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Gasolina do carro", 80.00, LocalDate.of(2025, 6, 2), TipoCategoria.DESPESA, "Transporte", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Cinema com a namorada", 55.00, LocalDate.of(2025, 6, 2), TipoCategoria.DESPESA, "Lazer", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Conta de luz", 120.00, LocalDate.of(2025, 6, 3), TipoCategoria.DESPESA, "Moradia", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Freelance Marketing", 700.00, LocalDate.of(2025, 6, 7), TipoCategoria.RECEITA, "Salário", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Mercado da semana", 150.00, LocalDate.of(2025, 6, 8), TipoCategoria.DESPESA, "Alimentação", CONTA_DEFAULT_NOME);
-            service.adicionarTransacao("Uber para trabalho", 25.00, LocalDate.of(2025, 6, 8), TipoCategoria.DESPESA, "Transporte", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Salário Mensal", 300000L, LocalDate.of(2025, 5, 30), TipoCategoria.RECEITA, "Salário", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Almoço no restaurante", 4550L, LocalDate.of(2025, 6, 1), TipoCategoria.DESPESA, "Alimentação", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Gasolina do carro", 8000L, LocalDate.of(2025, 6, 2), TipoCategoria.DESPESA, "Transporte", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Cinema com a namorada", 5500L, LocalDate.of(2025, 6, 2), TipoCategoria.DESPESA, "Lazer", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Conta de luz", 12000L, LocalDate.of(2025, 6, 3), TipoCategoria.DESPESA, "Moradia", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Freelance Marketing", 70000L, LocalDate.of(2025, 6, 7), TipoCategoria.RECEITA, "Salário", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Mercado da semana", 15000L, LocalDate.of(2025, 6, 8), TipoCategoria.DESPESA, "Alimentação", CONTA_DEFAULT_NOME);
+            service.adicionarTransacao("Uber para trabalho", 2500L, LocalDate.of(2025, 6, 8), TipoCategoria.DESPESA, "Transporte", CONTA_DEFAULT_NOME);
         } catch (IllegalArgumentException e) {
             System.err.println("Erro ao adicionar transação: " + e.getMessage());
         }
@@ -74,21 +82,21 @@ public class MainApp {
         LocalDate fimGeral = LocalDate.now();
 
         System.out.println("\n--- Balanço Total ---");
-        double balanco = service.calcularBalancoTotal(inicioGeral, fimGeral);
-        System.out.printf("Balanço Total: R$ %.2f%n", balanco);
+        long balanco = service.calcularBalancoTotal(inicioGeral, fimGeral);
+        System.out.println("Balanço Total: " + Dinheiro.formatar(balanco));
 
         System.out.println("\n--- Despesas por Categoria (Maio-Junho 2025) ---");
         LocalDate inicioPeriodo = LocalDate.of(2025, 5, 1);
         LocalDate fimPeriodo = LocalDate.of(2025, 6, 30);
-        Map<String, Double> despesasPorCategoria = service.calcularDespesasPorCategoria(inicioPeriodo, fimPeriodo);
-        despesasPorCategoria.forEach((cat, total) -> System.out.printf("%s: R$ %.2f%n", cat, total));
+        Map<String, Long> despesasPorCategoria = service.calcularDespesasPorCategoria(inicioPeriodo, fimPeriodo);
+        despesasPorCategoria.forEach((cat, total) -> System.out.println(cat + ": " + Dinheiro.formatar(total)));
 
         System.out.println("\n--- Atualizando uma Transação ---");
         Transacao transacaoParaAtualizar = service.buscarTransacaoPorId(2);
         if (transacaoParaAtualizar != null) {
             System.out.println("Transação antes da atualização: " + transacaoParaAtualizar);
             transacaoParaAtualizar.setDescricao("Almoço com cliente");
-            transacaoParaAtualizar.setValor(60.00);
+            transacaoParaAtualizar.setValorCentavos(6000L);
             try {
                 service.atualizarTransacao(transacaoParaAtualizar, "Alimentação", CONTA_DEFAULT_NOME);
                 System.out.println("Transação após atualização: " + service.buscarTransacaoPorId(2));
@@ -111,7 +119,7 @@ public class MainApp {
 
         System.out.println("\n--- Balanço Total Após Exclusão ---");
         balanco = service.calcularBalancoTotal(inicioGeral, fimGeral);
-        System.out.printf("Novo Balanço Total: R$ %.2f%n", balanco);
+        System.out.println("Novo Balanço Total: " + Dinheiro.formatar(balanco));
 
         System.out.println("\nSistema de Controle de Gastos Pessoais finalizado.");
     }
@@ -16,11 +16,12 @@ public class CategoriaDAO extends AbstractDAO<Categoria, Integer> {
     }
 
     public void save(Categoria categoria, Connection conn) {
-        String sql = "INSERT INTO categorias (nome, tipo) OUTPUT INSERTED.id VALUES (?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "INSERT INTO categorias (nome, tipo) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, categoria.getNome());
             stmt.setString(2, categoria.getTipo().name());
-            try (ResultSet rs = stmt.executeQuery()) {
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
                     categoria.setId(rs.getInt(1));
                 }
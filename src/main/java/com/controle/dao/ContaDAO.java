@@ -2,6 +2,7 @@ package com.controle.dao;
 
 import com.controle.model.Conta;
 import com.controle.model.TipoConta;
+import com.controle.util.Dinheiro;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -16,12 +17,13 @@ public class ContaDAO extends AbstractDAO<Conta, Integer> {
     }
 
     public void save(Conta conta, Connection conn) {
-        String sql = "INSERT INTO contas (nome, saldo_inicial, tipo) OUTPUT INSERTED.id VALUES (?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "INSERT INTO contas (nome, saldo_inicial, tipo) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, conta.getNome());
-            stmt.setDouble(2, conta.getSaldoInicial());
+            Dinheiro.bind(stmt, 2, conta.getSaldoInicialCentavos());
             stmt.setString(3, conta.getTipo().name());
-            try (ResultSet rs = stmt.executeQuery()) {
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
                     conta.setId(rs.getInt(1));
                 }
@@ -68,7 +70,7 @@ public class ContaDAO extends AbstractDAO<Conta, Integer> {
         String sql = "UPDATE contas SET nome = ?, saldo_inicial = ?, tipo = ? WHERE id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, conta.getNome());
-            stmt.setDouble(2, conta.getSaldoInicial());
+            Dinheiro.bind(stmt, 2, conta.getSaldoInicialCentavos());
             stmt.setString(3, conta.getTipo().name());
             stmt.setInt(4, conta.getId());
             int affectedRows = stmt.executeUpdate();
@@ -128,7 +130,7 @@ public class ContaDAO extends AbstractDAO<Conta, Integer> {
     private Conta mapResultSetToConta(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
         String nome = rs.getString("nome");
-        double saldoInicial = rs.getDouble("saldo_inicial");
+        long saldoInicial = Dinheiro.ler(rs, "saldo_inicial");
         TipoConta tipo = TipoConta.valueOf(rs.getString("tipo"));
         return new Conta(id, nome, saldoInicial, tipo);
     }
@@ -0,0 +1,55 @@
+package com.controle.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Marcadores da última execução de tarefas de manutenção (ex.: lançamento de recorrências)
+public class ExecucaoTarefaDAO {
+
+    public ExecucaoTarefaDAO() {
+    }
+
+    public LocalDateTime findUltimaExecucao(String nome, Connection conn) {
+        String sql = "SELECT ultima_execucao FROM execucoes_tarefas WHERE nome = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, nome);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getTimestamp("ultima_execucao").toLocalDateTime();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar última execução da tarefa '" + nome + "': " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar última execução da tarefa.", e);
+        }
+        return null;
+    }
+
+    public void registrar(String nome, LocalDateTime execucao, Connection conn) {
+        String updateSql = "UPDATE execucoes_tarefas SET ultima_execucao = ? WHERE nome = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(execucao));
+            stmt.setString(2, nome);
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao registrar execução da tarefa '" + nome + "': " + e.getMessage());
+            throw new RuntimeException("Erro ao registrar execução da tarefa.", e);
+        }
+
+        String insertSql = "INSERT INTO execucoes_tarefas (nome, ultima_execucao) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            stmt.setString(1, nome);
+            stmt.setTimestamp(2, Timestamp.valueOf(execucao));
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao registrar execução da tarefa '" + nome + "': " + e.getMessage());
+            throw new RuntimeException("Erro ao registrar execução da tarefa.", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.controle.dao;
+
+import com.controle.model.TipoCategoria;
+import com.controle.util.Dinheiro;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Total de despesas por (categoria, ano, mês), mantido junto com cada escrita em transacoes
+public class GastoCategoriaMesDAO {
+
+    private static final String SQL_RECONSTRUIR = "INSERT INTO gastos_categoria_mes (categoria_id, ano, mes, total) " +
+            "SELECT categoria_id, YEAR(data), MONTH(data), SUM(valor) " +
+            "FROM transacoes WHERE tipo = 'DESPESA' AND categoria_id IS NOT NULL " +
+            "GROUP BY categoria_id, YEAR(data), MONTH(data)";
+
+    private static final String SQL_DESPESAS_DA_CONTA = "SELECT SUM(t.valor) FROM transacoes t " +
+            "WHERE t.conta_id = ? AND t.tipo = 'DESPESA' AND t.categoria_id = gastos_categoria_mes.categoria_id " +
+            "AND YEAR(t.data) = gastos_categoria_mes.ano AND MONTH(t.data) = gastos_categoria_mes.mes";
+
+    // Roda antes de excluir a conta: o ON DELETE CASCADE apaga as transações dela, mas não passa por aqui
+    private static final String SQL_DESCONTAR_CONTA = "UPDATE gastos_categoria_mes SET total = total - (" +
+            SQL_DESPESAS_DA_CONTA + ") WHERE EXISTS (" + SQL_DESPESAS_DA_CONTA.replace("SELECT SUM(t.valor)", "SELECT 1") + ")";
+
+    public static final class Chave {
+        private final int categoriaId;
+        private final int ano;
+        private final int mes;
+
+        public Chave(int categoriaId, LocalDate data) {
+            this.categoriaId = categoriaId;
+            this.ano = data.getYear();
+            this.mes = data.getMonthValue();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave)) return false;
+            Chave outra = (Chave) o;
+            return categoriaId == outra.categoriaId && ano == outra.ano && mes == outra.mes;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoriaId, ano, mes);
+        }
+    }
+
+    public GastoCategoriaMesDAO() {
+    }
+
+    public static boolean contabiliza(TipoCategoria tipo, Integer categoriaId) {
+        return tipo == TipoCategoria.DESPESA && categoriaId != null;
+    }
+
+    public void aplicarDelta(Chave chave, long delta, Connection conn) {
+        if (delta == 0) {
+            return;
+        }
+        String updateSql = "UPDATE gastos_categoria_mes SET total = total + ? WHERE categoria_id = ? AND ano = ? AND mes = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+            Dinheiro.bind(stmt, 1, delta);
+            stmt.setInt(2, chave.categoriaId);
+            stmt.setInt(3, chave.ano);
+            stmt.setInt(4, chave.mes);
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao atualizar gasto da categoria no mês: " + e.getMessage());
+            throw new RuntimeException("Erro ao atualizar gasto da categoria no mês.", e);
+        }
+
+        String insertSql = "INSERT INTO gastos_categoria_mes (categoria_id, ano, mes, total) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            stmt.setInt(1, chave.categoriaId);
+            stmt.setInt(2, chave.ano);
+            stmt.setInt(3, chave.mes);
+            Dinheiro.bind(stmt, 4, delta);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao criar gasto da categoria no mês: " + e.getMessage());
+            throw new RuntimeException("Erro ao criar gasto da categoria no mês.", e);
+        }
+    }
+
+    public void descontarConta(int contaId, Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_DESCONTAR_CONTA)) {
+            stmt.setInt(1, contaId);
+            stmt.setInt(2, contaId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao descontar gastos da conta excluída: " + e.getMessage());
+            throw new RuntimeException("Erro ao descontar gastos da conta excluída.", e);
+        }
+    }
+
+    public long findTotal(int categoriaId, int mes, int ano, Connection conn) {
+        String sql = "SELECT total FROM gastos_categoria_mes WHERE categoria_id = ? AND ano = ? AND mes = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, categoriaId);
+            stmt.setInt(2, ano);
+            stmt.setInt(3, mes);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Dinheiro.ler(rs, "total");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar gasto da categoria no mês: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar gasto da categoria no mês.", e);
+        }
+        return 0L;
+    }
+
+    public void rebuild(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM gastos_categoria_mes");
+            int linhas = stmt.executeUpdate(SQL_RECONSTRUIR);
+            System.out.println("Gastos por categoria/mês reconstruídos: " + linhas + " linha(s).");
+        } catch (SQLException e) {
+            System.err.println("Erro ao reconstruir gastos por categoria/mês: " + e.getMessage());
+            throw new RuntimeException("Erro ao reconstruir gastos por categoria/mês.", e);
+        }
+    }
+}
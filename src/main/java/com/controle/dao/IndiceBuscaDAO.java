@@ -0,0 +1,174 @@
+package com.controle.dao;
+
+import com.controle.util.TokenizadorBusca;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Índice invertido (termo -> id) sobre as descrições de transacoes e transacoes_recorrentes.
+// Cada termo da consulta vira um filtro "termo LIKE 'x%'" sobre a chave do índice, então a busca
+// por prefixo e com vários termos (AND) usa seek em vez de varrer NVARCHAR(MAX) com LIKE '%x%'.
+public class IndiceBuscaDAO {
+
+    public static final String TRANSACAO = "T";
+    public static final String RECORRENTE = "R";
+
+    private static final int IDS_POR_CONSULTA = 1000;
+    private static final int LINHAS_POR_BATCH = 1000;
+    private static final String SQL_INSERT = "INSERT INTO indice_busca (entidade, termo, entidade_id) VALUES (?, ?, ?)";
+
+    public IndiceBuscaDAO() {
+    }
+
+    // Fragmento de WHERE com um filtro por termo; os parâmetros são ligados por bindTermos
+    public static String filtro(String colunaId, int quantidadeTermos) {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < quantidadeTermos; i++) {
+            sql.append(i == 0 ? "" : " AND ").append(colunaId)
+                    .append(" IN (SELECT entidade_id FROM indice_busca WHERE entidade = ? AND termo LIKE ?)");
+        }
+        return sql.toString();
+    }
+
+    // Os termos saem do TokenizadorBusca (só [a-z0-9]), então não há curingas de LIKE a escapar
+    public static int bindTermos(PreparedStatement stmt, int indice, String entidade, List<String> termos) throws SQLException {
+        for (String termo : termos) {
+            stmt.setString(indice++, entidade);
+            stmt.setString(indice++, termo + "%");
+        }
+        return indice;
+    }
+
+    public void indexar(String entidade, int id, String texto, Connection conn) {
+        remover(entidade, id, conn);
+        indexarTodos(entidade, Collections.singletonMap(id, texto), conn, false);
+    }
+
+    public void reindexarTodos(String entidade, Map<Integer, String> textos, Connection conn) {
+        indexarTodos(entidade, textos, conn, true);
+    }
+
+    public void indexarNovos(String entidade, Map<Integer, String> textos, Connection conn) {
+        indexarTodos(entidade, textos, conn, false);
+    }
+
+    private void indexarTodos(String entidade, Map<Integer, String> textos, Connection conn, boolean removerAnteriores) {
+        if (textos.isEmpty()) {
+            return;
+        }
+        if (removerAnteriores) {
+            removerTodos(entidade, List.copyOf(textos.keySet()), conn);
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+            int pendentes = 0;
+            for (Map.Entry<Integer, String> entrada : textos.entrySet()) {
+                for (String termo : TokenizadorBusca.termos(entrada.getValue())) {
+                    stmt.setString(1, entidade);
+                    stmt.setString(2, termo);
+                    stmt.setInt(3, entrada.getKey());
+                    stmt.addBatch();
+                    if (++pendentes == LINHAS_POR_BATCH) {
+                        stmt.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+            }
+            if (pendentes > 0) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao indexar descrições para busca: " + e.getMessage());
+            throw new RuntimeException("Erro ao indexar descrições para busca.", e);
+        }
+    }
+
+    // Indexa, de uma vez, as transações lançadas por uma regra recorrente que ainda não estão no índice
+    public void indexarOcorrencias(int recorrenciaId, String descricao, Connection conn) {
+        List<String> termos = TokenizadorBusca.termos(descricao);
+        if (termos.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO indice_busca (entidade, termo, entidade_id) " +
+                "SELECT ?, v.termo, t.id FROM transacoes t CROSS JOIN (VALUES " +
+                String.join(", ", Collections.nCopies(termos.size(), "(?)")) + ") AS v (termo) " +
+                "WHERE t.recorrencia_id = ? " +
+                "AND NOT EXISTS (SELECT 1 FROM indice_busca i WHERE i.entidade = ? AND i.entidade_id = t.id)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int indice = 1;
+            stmt.setString(indice++, TRANSACAO);
+            for (String termo : termos) {
+                stmt.setString(indice++, termo);
+            }
+            stmt.setInt(indice++, recorrenciaId);
+            stmt.setString(indice, TRANSACAO);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao indexar transações recorrentes para busca: " + e.getMessage());
+            throw new RuntimeException("Erro ao indexar transações recorrentes para busca.", e);
+        }
+    }
+
+    public void remover(String entidade, int id, Connection conn) {
+        String sql = "DELETE FROM indice_busca WHERE entidade = ? AND entidade_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, entidade);
+            stmt.setInt(2, id);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao remover descrição do índice de busca: " + e.getMessage());
+            throw new RuntimeException("Erro ao remover descrição do índice de busca.", e);
+        }
+    }
+
+    // As transações e recorrências da conta somem por ON DELETE CASCADE; o índice não tem FK para elas
+    public void removerDaConta(int contaId, Connection conn) {
+        String sql = "DELETE FROM indice_busca WHERE " +
+                "(entidade = ? AND entidade_id IN (SELECT id FROM transacoes WHERE conta_id = ?)) OR " +
+                "(entidade = ? AND entidade_id IN (SELECT id FROM transacoes_recorrentes WHERE conta_id = ?))";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, TRANSACAO);
+            stmt.setInt(2, contaId);
+            stmt.setString(3, RECORRENTE);
+            stmt.setInt(4, contaId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao remover descrições da conta do índice de busca: " + e.getMessage());
+            throw new RuntimeException("Erro ao remover descrições da conta do índice de busca.", e);
+        }
+    }
+
+    // Excluir a categoria apaga as recorrências dela por ON DELETE CASCADE (as transações só perdem a categoria)
+    public void removerRecorrenciasDaCategoria(int categoriaId, Connection conn) {
+        String sql = "DELETE FROM indice_busca WHERE entidade = ? " +
+                "AND entidade_id IN (SELECT id FROM transacoes_recorrentes WHERE categoria_id = ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, RECORRENTE);
+            stmt.setInt(2, categoriaId);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao remover recorrências da categoria do índice de busca: " + e.getMessage());
+            throw new RuntimeException("Erro ao remover recorrências da categoria do índice de busca.", e);
+        }
+    }
+
+    private void removerTodos(String entidade, List<Integer> ids, Connection conn) {
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_CONSULTA) {
+            List<Integer> lote = ids.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, ids.size()));
+            String sql = "DELETE FROM indice_busca WHERE entidade = ? AND entidade_id IN (" +
+                    String.join(", ", Collections.nCopies(lote.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, entidade);
+                for (int i = 0; i < lote.size(); i++) {
+                    stmt.setInt(i + 2, lote.get(i));
+                }
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                System.err.println("Erro ao remover descrições do índice de busca: " + e.getMessage());
+                throw new RuntimeException("Erro ao remover descrições do índice de busca.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.controle.dao;
+
+import com.controle.model.Categoria;
+import com.controle.model.Conta;
+import com.controle.model.TipoCategoria;
+import com.controle.model.TipoConta;
+import com.controle.util.Dinheiro;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+class MapeamentoReferencias {
+
+    static final String COLUNAS_CATEGORIA = "c.nome AS categoria_nome, c.tipo AS categoria_tipo";
+    static final String COLUNAS_CONTA = "ct.nome AS conta_nome, ct.saldo_inicial AS conta_saldo_inicial, ct.tipo AS conta_tipo";
+
+    private final Map<Integer, Categoria> categorias = new HashMap<>();
+    private final Map<Integer, Conta> contas = new HashMap<>();
+
+    Categoria categoria(ResultSet rs) throws SQLException {
+        Integer categoriaId = rs.getObject("categoria_id", Integer.class);
+        if (categoriaId == null) {
+            return null;
+        }
+        Categoria categoria = categorias.get(categoriaId);
+        if (categoria == null) {
+            String nome = rs.getString("categoria_nome");
+            if (nome == null) {
+                return null;
+            }
+            categoria = new Categoria(categoriaId, nome, TipoCategoria.valueOf(rs.getString("categoria_tipo")));
+            categorias.put(categoriaId, categoria);
+        }
+        return categoria;
+    }
+
+    Conta conta(ResultSet rs) throws SQLException {
+        Integer contaId = rs.getObject("conta_id", Integer.class);
+        if (contaId == null) {
+            return null;
+        }
+        Conta conta = contas.get(contaId);
+        if (conta == null) {
+            String nome = rs.getString("conta_nome");
+            if (nome == null) {
+                return null;
+            }
+            conta = new Conta(contaId, nome, Dinheiro.ler(rs, "conta_saldo_inicial"), TipoConta.valueOf(rs.getString("conta_tipo")));
+            contas.put(contaId, conta);
+        }
+        return conta;
+    }
+}
@@ -1,7 +1,9 @@
 package com.controle.dao;
 
 import com.controle.model.Categoria;
+import com.controle.model.ConsumoOrcamento;
 import com.controle.model.Orcamento;
+import com.controle.util.Dinheiro;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -9,27 +11,38 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.sql.Connection;
 
 public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
 
-    private CategoriaDAO categoriaDAO;
+    private static final String SELECT_ORCAMENTO = "SELECT o.id, o.categoria_id, o.valor_limite, o.mes, o.ano, " +
+            MapeamentoReferencias.COLUNAS_CATEGORIA + " " +
+            "FROM orcamentos o " +
+            "JOIN categorias c ON c.id = o.categoria_id";
 
-    public OrcamentoDAO(CategoriaDAO categoriaDAO) {
+    private static final String SELECT_CONSUMO = "SELECT o.id, o.categoria_id, o.valor_limite, o.mes, o.ano, " +
+            "COALESCE(g.total, 0) AS gasto, " +
+            MapeamentoReferencias.COLUNAS_CATEGORIA + " " +
+            "FROM orcamentos o " +
+            "JOIN categorias c ON c.id = o.categoria_id " +
+            "LEFT JOIN gastos_categoria_mes g ON g.categoria_id = o.categoria_id AND g.ano = o.ano AND g.mes = o.mes";
+
+    public OrcamentoDAO() {
         super();
-        this.categoriaDAO = categoriaDAO;
     }
 
     public void save(Orcamento orcamento, Connection conn) {
         String sql = "INSERT INTO orcamentos (categoria_id, valor_limite, mes, ano) " +
-                "OUTPUT INSERTED.id VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                "VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, orcamento.getCategoria().getId());
-            stmt.setDouble(2, orcamento.getValorLimite());
+            Dinheiro.bind(stmt, 2, orcamento.getValorLimiteCentavos());
             stmt.setInt(3, orcamento.getMes());
             stmt.setInt(4, orcamento.getAno());
 
-            try (ResultSet rs = stmt.executeQuery()) {
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
                     orcamento.setId(rs.getInt(1));
                 }
@@ -37,7 +50,7 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
             System.out.println("Orçamento para '" + orcamento.getCategoria().getNome() + "' salvo com sucesso.");
         } catch (SQLException e) {
             System.err.println("Erro ao salvar orçamento: " + e.getMessage());
-            if (e.getMessage().contains("UQ_Categoria_Mes_Ano")) {
+            if (violaUnicidadeMesAno(e)) {
                 throw new RuntimeException("Já existe um orçamento para esta categoria neste mês/ano.", e);
             }
             throw new RuntimeException("Erro ao salvar orçamento.", e);
@@ -48,7 +61,7 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
         String sql = "UPDATE orcamentos SET categoria_id = ?, valor_limite = ?, mes = ?, ano = ? WHERE id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, orcamento.getCategoria().getId());
-            stmt.setDouble(2, orcamento.getValorLimite());
+            Dinheiro.bind(stmt, 2, orcamento.getValorLimiteCentavos());
             stmt.setInt(3, orcamento.getMes());
             stmt.setInt(4, orcamento.getAno());
             stmt.setInt(5, orcamento.getId());
@@ -56,7 +69,7 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
             System.out.println("Orçamento para '" + orcamento.getCategoria().getNome() + "' atualizado.");
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar orçamento: " + e.getMessage());
-            if (e.getMessage().contains("UQ_Categoria_Mes_Ano")) {
+            if (violaUnicidadeMesAno(e)) {
                 throw new RuntimeException("Já existe um orçamento para esta categoria neste mês/ano.", e);
             }
             throw new RuntimeException("Erro ao atualizar orçamento.", e);
@@ -76,12 +89,12 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
     }
 
     public Orcamento findById(Integer id, Connection conn) {
-        String sql = "SELECT * FROM orcamentos WHERE id = ?";
+        String sql = SELECT_ORCAMENTO + " WHERE o.id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToOrcamento(rs, conn);
+                    return mapResultSetToOrcamento(rs, new MapeamentoReferencias());
                 }
             }
         } catch (SQLException e) {
@@ -93,11 +106,12 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
 
     public List<Orcamento> findAll(Connection conn) {
         List<Orcamento> lista = new ArrayList<>();
-        String sql = "SELECT * FROM orcamentos ORDER BY ano, mes, categoria_id";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_ORCAMENTO + " ORDER BY o.ano, o.mes, o.categoria_id";
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                lista.add(mapResultSetToOrcamento(rs, conn));
+                lista.add(mapResultSetToOrcamento(rs, referencias));
             }
         } catch (SQLException e) {
             System.err.println("Erro ao buscar todos os orçamentos: " + e.getMessage());
@@ -107,14 +121,14 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
     }
 
     public Orcamento findByCategoriaMesAno(int categoriaId, int mes, int ano, Connection conn) {
-        String sql = "SELECT * FROM orcamentos WHERE categoria_id = ? AND mes = ? AND ano = ?";
+        String sql = SELECT_ORCAMENTO + " WHERE o.categoria_id = ? AND o.mes = ? AND o.ano = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, categoriaId);
             stmt.setInt(2, mes);
             stmt.setInt(3, ano);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToOrcamento(rs, conn);
+                    return mapResultSetToOrcamento(rs, new MapeamentoReferencias());
                 }
             }
         } catch (SQLException e) {
@@ -124,21 +138,79 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
         return null;
     }
 
-    private Orcamento mapResultSetToOrcamento(ResultSet rs, Connection conn) throws SQLException {
+    public ConsumoOrcamento findConsumoByCategoriaMesAno(int categoriaId, int mes, int ano, Connection conn) {
+        String sql = SELECT_CONSUMO + " WHERE o.categoria_id = ? AND o.mes = ? AND o.ano = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, categoriaId);
+            stmt.setInt(2, mes);
+            stmt.setInt(3, ano);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ConsumoOrcamento(mapResultSetToOrcamento(rs, new MapeamentoReferencias()), Dinheiro.ler(rs, "gasto"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar consumo do orçamento: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar consumo do orçamento.", e);
+        }
+        return null;
+    }
+
+    public List<ConsumoOrcamento> findConsumoByMesAno(Integer mes, Integer ano, Connection conn) {
+        List<ConsumoOrcamento> lista = new ArrayList<>();
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        StringBuilder sql = new StringBuilder(SELECT_CONSUMO);
+        boolean hasMes = (mes != null && mes > 0);
+        boolean hasAno = (ano != null && ano > 0);
+
+        if (hasMes || hasAno) {
+            sql.append(" WHERE ");
+        }
+        if (hasMes) {
+            sql.append("o.mes = ?");
+        }
+        if (hasAno) {
+            if (hasMes) sql.append(" AND ");
+            sql.append("o.ano = ?");
+        }
+        sql.append(" ORDER BY o.ano, o.mes, o.categoria_id");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int paramIndex = 1;
+            if (hasMes) {
+                stmt.setInt(paramIndex++, mes);
+            }
+            if (hasAno) {
+                stmt.setInt(paramIndex, ano);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(new ConsumoOrcamento(mapResultSetToOrcamento(rs, referencias), Dinheiro.ler(rs, "gasto")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar consumo dos orçamentos: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar consumo dos orçamentos.", e);
+        }
+        return lista;
+    }
+
+    private Orcamento mapResultSetToOrcamento(ResultSet rs, MapeamentoReferencias referencias) throws SQLException {
         int id = rs.getInt("id");
-        int categoriaId = rs.getInt("categoria_id");
-        double valorLimite = rs.getDouble("valor_limite");
+        long valorLimite = Dinheiro.ler(rs, "valor_limite");
         int mes = rs.getInt("mes");
         int ano = rs.getInt("ano");
 
-        Categoria categoria = categoriaDAO.findById(categoriaId, conn);
+        Categoria categoria = referencias.categoria(rs);
 
         return new Orcamento(id, categoria, valorLimite, mes, ano);
     }
 
     public List<Orcamento> findByMesAno(Integer mes, Integer ano, Connection conn) {
         List<Orcamento> lista = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT * FROM orcamentos");
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        StringBuilder sql = new StringBuilder(SELECT_ORCAMENTO);
         boolean hasMes = (mes != null && mes > 0);
         boolean hasAno = (ano != null && ano > 0);
 
@@ -146,13 +218,13 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
             sql.append(" WHERE ");
         }
         if (hasMes) {
-            sql.append("mes = ?");
+            sql.append("o.mes = ?");
         }
         if (hasAno) {
             if (hasMes) sql.append(" AND ");
-            sql.append("ano = ?");
+            sql.append("o.ano = ?");
         }
-        sql.append(" ORDER BY ano, mes, categoria_id");
+        sql.append(" ORDER BY o.ano, o.mes, o.categoria_id");
 
         try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
             int paramIndex = 1;
@@ -165,7 +237,7 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    lista.add(mapResultSetToOrcamento(rs, conn));
+                    lista.add(mapResultSetToOrcamento(rs, referencias));
                 }
             }
         } catch (SQLException e) {
@@ -174,4 +246,9 @@ public class OrcamentoDAO extends AbstractDAO<Orcamento, Integer> {
         }
         return lista;
     }
-}
\ No newline at end of file
+
+    // O SQL Server cita a constraint como foi criada; o H2 cita o índice em maiúsculas
+    private static boolean violaUnicidadeMesAno(SQLException e) {
+        return e.getMessage() != null && e.getMessage().toUpperCase(Locale.ROOT).contains("UQ_CATEGORIA_MES_ANO");
+    }
+}
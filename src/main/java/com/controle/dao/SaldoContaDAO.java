@@ -0,0 +1,96 @@
+package com.controle.dao;
+
+import com.controle.model.TipoCategoria;
+import com.controle.util.Dinheiro;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SaldoContaDAO {
+
+    private static final String SQL_RECONSTRUIR = "INSERT INTO saldos_conta (conta_id, saldo) " +
+            "SELECT c.id, COALESCE(SUM(CASE t.tipo WHEN 'RECEITA' THEN t.valor WHEN 'DESPESA' THEN -t.valor ELSE 0 END), 0) " +
+            "FROM contas c LEFT JOIN transacoes t ON t.conta_id = c.id " +
+            "GROUP BY c.id";
+
+    public SaldoContaDAO() {
+    }
+
+    public static long delta(TipoCategoria tipo, long valor) {
+        return tipo == TipoCategoria.RECEITA ? valor : -valor;
+    }
+
+    public void aplicarDelta(int contaId, long delta, Connection conn) {
+        if (delta == 0) {
+            return;
+        }
+        String updateSql = "UPDATE saldos_conta SET saldo = saldo + ? WHERE conta_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+            Dinheiro.bind(stmt, 1, delta);
+            stmt.setInt(2, contaId);
+            if (stmt.executeUpdate() > 0) {
+                return;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao atualizar saldo da conta: " + e.getMessage());
+            throw new RuntimeException("Erro ao atualizar saldo da conta.", e);
+        }
+
+        String insertSql = "INSERT INTO saldos_conta (conta_id, saldo) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+            stmt.setInt(1, contaId);
+            Dinheiro.bind(stmt, 2, delta);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Erro ao criar saldo da conta: " + e.getMessage());
+            throw new RuntimeException("Erro ao criar saldo da conta.", e);
+        }
+    }
+
+    // Saldo líquido das transações da conta (receitas - despesas), sem o saldo inicial
+    public long findSaldo(int contaId, Connection conn) {
+        String sql = "SELECT saldo FROM saldos_conta WHERE conta_id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, contaId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Dinheiro.ler(rs, "saldo");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar saldo da conta: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar saldo da conta.", e);
+        }
+        return 0L;
+    }
+
+    public Map<Integer, Long> findAll(Connection conn) {
+        Map<Integer, Long> saldos = new HashMap<>();
+        String sql = "SELECT conta_id, saldo FROM saldos_conta";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                saldos.put(rs.getInt("conta_id"), Dinheiro.ler(rs, "saldo"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar saldos das contas: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar saldos das contas.", e);
+        }
+        return saldos;
+    }
+
+    public void rebuild(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM saldos_conta");
+            int contas = stmt.executeUpdate(SQL_RECONSTRUIR);
+            System.out.println("Saldos reconstruídos para " + contas + " conta(s).");
+        } catch (SQLException e) {
+            System.err.println("Erro ao reconstruir saldos das contas: " + e.getMessage());
+            throw new RuntimeException("Erro ao reconstruir saldos das contas.", e);
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.controle.dao;
 
 import com.controle.model.Categoria;
 import com.controle.model.Conta;
+import com.controle.model.TotaisPeriodo;
 import com.controle.model.Transacao;
 import com.controle.model.TipoCategoria;
+import com.controle.model.TransacaoRecorrente;
+import com.controle.util.DialetoSql;
+import com.controle.util.Dinheiro;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -11,45 +15,67 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
 import java.sql.Connection;
 
 public class TransacaoDAO extends AbstractDAO<Transacao, Integer> {
 
-    private final CategoriaDAO categoriaDAO;
-    private final ContaDAO contaDAO;
+    private static final String SELECT_TRANSACAO = "SELECT t.id, t.descricao, t.valor, t.data, t.tipo, t.categoria_id, t.conta_id, " +
+            MapeamentoReferencias.COLUNAS_CATEGORIA + ", " + MapeamentoReferencias.COLUNAS_CONTA + " " +
+            "FROM transacoes t " +
+            "LEFT JOIN categorias c ON c.id = t.categoria_id " +
+            "LEFT JOIN contas ct ON ct.id = t.conta_id";
 
-    public TransacaoDAO(CategoriaDAO categoriaDAO, ContaDAO contaDAO) {
-        super();
-        this.categoriaDAO = categoriaDAO;
-        this.contaDAO = contaDAO;
+    // 7 parâmetros por linha no INSERT em lote, abaixo do limite de 2100 parâmetros do SQL Server
+    private static final int LINHAS_POR_INSERT = 250;
+    private static final int IDS_POR_CONSULTA = 1000;
+    private static final int TAMANHO_FETCH = 500;
+    private static final String SQL_UPDATE = "UPDATE transacoes SET descricao = ?, valor = ?, data = ?, tipo = ?, categoria_id = ?, conta_id = ? WHERE id = ?";
+    // No SQL Server, UPDLOCK/HOLDLOCK trava a faixa da chave até o commit: execuções simultâneas esperam
+    // em vez de lançar a mesma ocorrência; o índice único UX_transacoes_recorrencia garante o resto
+    private static final String SQL_INSERT_OCORRENCIA = "INSERT INTO transacoes (descricao, valor, data, tipo, categoria_id, conta_id, recorrencia_id, data_ocorrencia) " +
+            "SELECT ?, ?, ?, ?, ?, ?, ?, ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM transacoes%s WHERE recorrencia_id = ? AND data_ocorrencia = ?)";
+
+    // Linha enxuta para cargas analíticas: só os campos numéricos, sem montar objetos por linha
+    @FunctionalInterface
+    public interface ConsumidorResumo {
+        void aceitar(int id, long diaEpoca, long valorCentavos, TipoCategoria tipo, int categoriaId, int contaId);
     }
 
-    public void save(Transacao transacao, Connection conn) {
-        String sql = "INSERT INTO transacoes (descricao, valor, data, tipo, categoria_id, conta_id) OUTPUT INSERTED.id VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, transacao.getDescricao());
-            stmt.setDouble(2, transacao.getValor());
-            stmt.setDate(3, Date.valueOf(transacao.getData()));
-            stmt.setString(4, transacao.getTipo().name());
+    private final SaldoContaDAO saldoContaDAO;
+    private final GastoCategoriaMesDAO gastoCategoriaMesDAO;
+    private final IndiceBuscaDAO indiceBuscaDAO;
 
-            if (transacao.getCategoria() != null) {
-                stmt.setInt(5, transacao.getCategoria().getId());
-            } else {
-                stmt.setNull(5, java.sql.Types.INTEGER);
-            }
+    public TransacaoDAO(SaldoContaDAO saldoContaDAO, GastoCategoriaMesDAO gastoCategoriaMesDAO, IndiceBuscaDAO indiceBuscaDAO) {
+        super();
+        this.saldoContaDAO = saldoContaDAO;
+        this.gastoCategoriaMesDAO = gastoCategoriaMesDAO;
+        this.indiceBuscaDAO = indiceBuscaDAO;
+    }
 
-            if (transacao.getConta() != null) {
-                stmt.setInt(6, transacao.getConta().getId());
-            } else {
-                stmt.setNull(6, java.sql.Types.INTEGER);
-            }
+    public void save(Transacao transacao, Connection conn) {
+        String sql = "INSERT INTO transacoes (descricao, valor, data, tipo, categoria_id, conta_id) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bindCampos(stmt, 1, transacao);
 
-            try (ResultSet rs = stmt.executeQuery()) {
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
                     transacao.setId(rs.getInt(1));
                 }
             }
+
+            Projecoes projecoes = new Projecoes();
+            projecoes.somar(Movimento.de(transacao));
+            projecoes.aplicar(conn);
+            indiceBuscaDAO.indexar(IndiceBuscaDAO.TRANSACAO, transacao.getId(), transacao.getDescricao(), conn);
         } catch (SQLException e) {
             System.err.println("Erro ao salvar transação: " + e.getMessage());
             throw new RuntimeException("Erro ao salvar transação.", e);
@@ -57,12 +83,12 @@ public class TransacaoDAO extends AbstractDAO<Transacao, Integer> {
     }
 
     public Transacao findById(Integer id, Connection conn) {
-        String sql = "SELECT * FROM transacoes WHERE id = ?";
+        String sql = SELECT_TRANSACAO + " WHERE t.id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToTransacao(rs, conn);
+                    return mapResultSetToTransacao(rs, new MapeamentoReferencias());
                 }
             }
         } catch (SQLException e) {
@@ -74,11 +100,12 @@ public class TransacaoDAO extends AbstractDAO<Transacao, Integer> {
 
     public List<Transacao> findAll(Connection conn) {
         List<Transacao> transacoes = new ArrayList<>();
-        String sql = "SELECT * FROM transacoes ORDER BY data DESC";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_TRANSACAO + " ORDER BY t.data DESC";
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                transacoes.add(mapResultSetToTransacao(rs, conn));
+                transacoes.add(mapResultSetToTransacao(rs, referencias));
             }
         } catch (SQLException e) {
             System.err.println("Erro ao buscar todas as transações: " + e.getMessage());
@@ -88,52 +115,235 @@ public class TransacaoDAO extends AbstractDAO<Transacao, Integer> {
     }
 
     public void update(Transacao transacao, Connection conn) {
-        String sql = "UPDATE transacoes SET descricao = ?, valor = ?, data = ?, tipo = ?, categoria_id = ?, conta_id = ? WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, transacao.getDescricao());
-            stmt.setDouble(2, transacao.getValor());
-            stmt.setDate(3, Date.valueOf(transacao.getData()));
-            stmt.setString(4, transacao.getTipo().name());
+        Movimento anterior = findMovimento(transacao.getId(), conn);
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+            bindCampos(stmt, 1, transacao);
 
-            if (transacao.getCategoria() != null) {
-                stmt.setInt(5, transacao.getCategoria().getId());
-            } else {
-                stmt.setNull(5, java.sql.Types.INTEGER);
+            stmt.setInt(7, transacao.getId());
+            if (anterior != null && stmt.executeUpdate() > 0) {
+                Projecoes projecoes = new Projecoes();
+                projecoes.subtrair(anterior);
+                projecoes.somar(Movimento.de(transacao));
+                projecoes.aplicar(conn);
+                indiceBuscaDAO.indexar(IndiceBuscaDAO.TRANSACAO, transacao.getId(), transacao.getDescricao(), conn);
             }
+        } catch (SQLException e) {
+            System.err.println("Erro ao atualizar transação: " + e.getMessage());
+            throw new RuntimeException("Erro ao atualizar transação.", e);
+        }
+    }
+
+    public void saveAll(List<Transacao> transacoes, Connection conn) {
+        for (int inicio = 0; inicio < transacoes.size(); inicio += LINHAS_POR_INSERT) {
+            List<Transacao> lote = transacoes.subList(inicio, Math.min(inicio + LINHAS_POR_INSERT, transacoes.size()));
+            inserirLote(lote, conn);
+        }
+        Projecoes projecoes = new Projecoes();
+        for (Transacao transacao : transacoes) {
+            projecoes.somar(Movimento.de(transacao));
+        }
+        projecoes.aplicar(conn);
+        indiceBuscaDAO.indexarNovos(IndiceBuscaDAO.TRANSACAO, descricoesPorId(transacoes), conn);
+    }
 
-            if (transacao.getConta() != null) {
-                stmt.setInt(6, transacao.getConta().getId());
+    private void inserirLote(List<Transacao> lote, Connection conn) {
+        try {
+            if (DialetoSql.da(conn).suportaInsertEmLoteComIds()) {
+                inserirLoteComMerge(lote, conn);
             } else {
-                stmt.setNull(6, java.sql.Types.INTEGER);
+                inserirLoteEmBatch(lote, conn);
             }
+        } catch (SQLException e) {
+            System.err.println("Erro ao salvar lote de transações: " + e.getMessage());
+            throw new RuntimeException("Erro ao salvar lote de transações.", e);
+        }
+    }
 
-            stmt.setInt(7, transacao.getId());
-            stmt.executeUpdate();
+    // MERGE com ON 1 = 0 insere todas as linhas e, ao contrário do INSERT, permite devolver
+    // a coluna de ordem da origem junto com o id gerado
+    private void inserirLoteComMerge(List<Transacao> lote, Connection conn) throws SQLException {
+        StringBuilder sql = new StringBuilder("MERGE INTO transacoes USING (VALUES ");
+        for (int i = 0; i < lote.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?)");
+        }
+        sql.append(") AS v (ordem, descricao, valor, data, tipo, categoria_id, conta_id) ON 1 = 0 ")
+                .append("WHEN NOT MATCHED THEN INSERT (descricao, valor, data, tipo, categoria_id, conta_id) ")
+                .append("VALUES (v.descricao, v.valor, v.data, v.tipo, v.categoria_id, v.conta_id) ")
+                .append("OUTPUT v.ordem, INSERTED.id;");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int indice = 1;
+            for (int i = 0; i < lote.size(); i++) {
+                stmt.setInt(indice++, i);
+                indice = bindCampos(stmt, indice, lote.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lote.get(rs.getInt(1)).setId(rs.getInt(2));
+                }
+            }
+        }
+    }
+
+    // Banco embutido: sem ida e volta pela rede, o batch JDBC devolve as chaves na ordem das linhas
+    private void inserirLoteEmBatch(List<Transacao> lote, Connection conn) throws SQLException {
+        String sql = "INSERT INTO transacoes (descricao, valor, data, tipo, categoria_id, conta_id) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Transacao transacao : lote) {
+                bindCampos(stmt, 1, transacao);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                for (int i = 0; i < lote.size() && rs.next(); i++) {
+                    lote.get(i).setId(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    public void updateAll(List<Transacao> transacoes, Connection conn) {
+        List<Integer> ids = new ArrayList<>();
+        for (Transacao transacao : transacoes) {
+            ids.add(transacao.getId());
+        }
+        Map<Integer, Movimento> anteriores = findMovimentos(ids, conn);
+
+        // Ids que não existem mais no banco ficam de fora das projeções e do índice, como no delete
+        List<Transacao> atualizadas = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+            List<Transacao> pendentes = new ArrayList<>();
+            for (Transacao transacao : transacoes) {
+                if (!anteriores.containsKey(transacao.getId())) {
+                    continue;
+                }
+                bindCampos(stmt, 1, transacao);
+                stmt.setInt(7, transacao.getId());
+                stmt.addBatch();
+                pendentes.add(transacao);
+                if (pendentes.size() == LINHAS_POR_INSERT) {
+                    contarAtualizadas(stmt.executeBatch(), pendentes, atualizadas);
+                    pendentes.clear();
+                }
+            }
+            if (!pendentes.isEmpty()) {
+                contarAtualizadas(stmt.executeBatch(), pendentes, atualizadas);
+            }
         } catch (SQLException e) {
-            System.err.println("Erro ao atualizar transação: " + e.getMessage());
-            throw new RuntimeException("Erro ao atualizar transação.", e);
+            System.err.println("Erro ao atualizar lote de transações: " + e.getMessage());
+            throw new RuntimeException("Erro ao atualizar lote de transações.", e);
+        }
+
+        Projecoes projecoes = new Projecoes();
+        for (Transacao transacao : atualizadas) {
+            projecoes.subtrair(anteriores.get(transacao.getId()));
+            projecoes.somar(Movimento.de(transacao));
+        }
+        projecoes.aplicar(conn);
+        indiceBuscaDAO.reindexarTodos(IndiceBuscaDAO.TRANSACAO, descricoesPorId(atualizadas), conn);
+    }
+
+    private void contarAtualizadas(int[] resultados, List<Transacao> lote, List<Transacao> atualizadas) {
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] > 0 || resultados[i] == Statement.SUCCESS_NO_INFO) {
+                atualizadas.add(lote.get(i));
+            }
+        }
+    }
+
+    private Map<Integer, String> descricoesPorId(List<Transacao> transacoes) {
+        Map<Integer, String> descricoes = new LinkedHashMap<>();
+        for (Transacao transacao : transacoes) {
+            descricoes.put(transacao.getId(), transacao.getDescricao());
         }
+        return descricoes;
+    }
+
+    // Lança as ocorrências das regras recorrentes; ocorrências já lançadas são ignoradas.
+    // Retorna quantas transações foram efetivamente inseridas.
+    public int saveOcorrencias(Map<TransacaoRecorrente, List<LocalDate>> ocorrencias, Connection conn) {
+        List<Movimento> movimentos = new ArrayList<>();
+        Projecoes projecoes = new Projecoes();
+        int inseridas = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(String.format(SQL_INSERT_OCORRENCIA, DialetoSql.da(conn).dicaTravaAteCommit()))) {
+            int pendentes = 0;
+            for (Map.Entry<TransacaoRecorrente, List<LocalDate>> entrada : ocorrencias.entrySet()) {
+                TransacaoRecorrente tr = entrada.getKey();
+                for (LocalDate data : entrada.getValue()) {
+                    stmt.setString(1, tr.getDescricao());
+                    Dinheiro.bind(stmt, 2, tr.getValorCentavos());
+                    stmt.setDate(3, Date.valueOf(data));
+                    stmt.setString(4, tr.getTipo().name());
+                    stmt.setInt(5, tr.getCategoria().getId());
+                    stmt.setInt(6, tr.getConta().getId());
+                    stmt.setInt(7, tr.getId());
+                    stmt.setDate(8, Date.valueOf(data));
+                    stmt.setInt(9, tr.getId());
+                    stmt.setDate(10, Date.valueOf(data));
+                    stmt.addBatch();
+                    movimentos.add(new Movimento(tr.getConta().getId(), tr.getCategoria().getId(), tr.getTipo(), data, tr.getValorCentavos()));
+                    if (++pendentes == LINHAS_POR_INSERT) {
+                        inseridas += contarInseridas(stmt.executeBatch(), movimentos, projecoes);
+                        movimentos.clear();
+                        pendentes = 0;
+                    }
+                }
+            }
+            if (pendentes > 0) {
+                inseridas += contarInseridas(stmt.executeBatch(), movimentos, projecoes);
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao lançar transações recorrentes: " + e.getMessage());
+            throw new RuntimeException("Erro ao lançar transações recorrentes.", e);
+        }
+        projecoes.aplicar(conn);
+        if (inseridas > 0) {
+            for (TransacaoRecorrente tr : ocorrencias.keySet()) {
+                indiceBuscaDAO.indexarOcorrencias(tr.getId(), tr.getDescricao(), conn);
+            }
+        }
+        return inseridas;
+    }
+
+    private int contarInseridas(int[] resultados, List<Movimento> movimentos, Projecoes projecoes) {
+        int inseridas = 0;
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] > 0) {
+                projecoes.somar(movimentos.get(i));
+                inseridas++;
+            }
+        }
+        return inseridas;
     }
 
     public void delete(Integer id, Connection conn) {
+        Movimento anterior = findMovimento(id, conn);
         String sql = "DELETE FROM transacoes WHERE id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
-            stmt.executeUpdate();
+            if (stmt.executeUpdate() > 0) {
+                Projecoes projecoes = new Projecoes();
+                projecoes.subtrair(anterior);
+                projecoes.aplicar(conn);
+                indiceBuscaDAO.remover(IndiceBuscaDAO.TRANSACAO, id, conn);
+            }
         } catch (SQLException e) {
             System.err.println("Erro ao excluir transação: " + e.getMessage());
             throw new RuntimeException("Erro ao excluir transação.", e);
         }
     }
 
-    public List<Transacao> findAllByDescriptionLike(String termoBusca, Connection conn) {
+    // Cada termo casa com o início de uma palavra da descrição, sem acentos; todos os termos precisam casar
+    public List<Transacao> findAllByTermos(List<String> termos, Connection conn) {
         List<Transacao> transacoes = new ArrayList<>();
-        String sql = "SELECT * FROM transacoes WHERE descricao LIKE ? ORDER BY data DESC";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_TRANSACAO + (termos.isEmpty() ? "" : " WHERE " + IndiceBuscaDAO.filtro("t.id", termos.size())) +
+                " ORDER BY t.data DESC";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, "%" + termoBusca + "%");
+            IndiceBuscaDAO.bindTermos(stmt, 1, IndiceBuscaDAO.TRANSACAO, termos);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transacoes.add(mapResultSetToTransacao(rs, conn));
+                    transacoes.add(mapResultSetToTransacao(rs, referencias));
                 }
             }
         } catch (SQLException e) {
@@ -143,14 +353,50 @@ public class TransacaoDAO extends AbstractDAO<Transacao, Integer> {
         return transacoes;
     }
 
+    // Paginação por chave (data DESC, id DESC): a próxima página começa após a última transação
+    // já exibida, sem OFFSET, então o custo não cresce com a profundidade da rolagem
+    public List<Transacao> findPagina(List<String> termos, Transacao ultimaExibida, int tamanho, Connection conn) {
+        List<Transacao> transacoes = new ArrayList<>();
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        StringBuilder sql = new StringBuilder(SELECT_TRANSACAO).append(" WHERE 1 = 1");
+        if (!termos.isEmpty()) {
+            sql.append(" AND ").append(IndiceBuscaDAO.filtro("t.id", termos.size()));
+        }
+        if (ultimaExibida != null) {
+            sql.append(" AND (t.data < ? OR (t.data = ? AND t.id < ?))");
+        }
+        sql.append(" ORDER BY t.data DESC, t.id DESC OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY");
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int indice = IndiceBuscaDAO.bindTermos(stmt, 1, IndiceBuscaDAO.TRANSACAO, termos);
+            if (ultimaExibida != null) {
+                Date data = Date.valueOf(ultimaExibida.getData());
+                stmt.setDate(indice++, data);
+                stmt.setDate(indice++, data);
+                stmt.setInt(indice++, ultimaExibida.getId());
+            }
+            stmt.setInt(indice, tamanho);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    transacoes.add(mapResultSetToTransacao(rs, referencias));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar página de transações: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar transações.", e);
+        }
+        return transacoes;
+    }
+
     public List<Transacao> findByContaId(int contaId, Connection conn) {
         List<Transacao> transacoes = new ArrayList<>();
-        String sql = "SELECT * FROM transacoes WHERE conta_id = ? ORDER BY data DESC";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_TRANSACAO + " WHERE t.conta_id = ? ORDER BY t.data DESC";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, contaId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    transacoes.add(mapResultSetToTransacao(rs, conn));
+                    transacoes.add(mapResultSetToTransacao(rs, referencias));
                 }
             }
         } catch (SQLException e) {
@@ -160,25 +406,273 @@ public class TransacaoDAO extends AbstractDAO<Transacao, Integer> {
         return transacoes;
     }
 
-    private Transacao mapResultSetToTransacao(ResultSet rs, Connection conn) throws SQLException {
+    public int countBetween(LocalDate inicio, LocalDate fim, Integer contaId, Connection conn) {
+        String sql = "SELECT COUNT(*) FROM transacoes WHERE data BETWEEN ? AND ?" + (contaId != null ? " AND conta_id = ?" : "");
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(inicio));
+            stmt.setDate(2, Date.valueOf(fim));
+            if (contaId != null) {
+                stmt.setInt(3, contaId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao contar transações no período: " + e.getMessage());
+            throw new RuntimeException("Erro ao contar transações do período.", e);
+        }
+    }
+
+    // Entrega as transações do período (opcionalmente de uma conta) uma a uma, em ordem cronológica,
+    // sem montar a lista inteira. O ResultSet forward-only/read-only com fetch size limitado faz o driver
+    // ler o resultado do socket aos poucos, então a memória não depende do número de linhas exportadas.
+    public void streamBetween(LocalDate inicio, LocalDate fim, Integer contaId, Connection conn, Consumer<Transacao> consumidor) {
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_TRANSACAO + " WHERE t.data BETWEEN ? AND ?" + (contaId != null ? " AND t.conta_id = ?" : "") +
+                " ORDER BY t.data, t.id";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(TAMANHO_FETCH);
+            stmt.setDate(1, Date.valueOf(inicio));
+            stmt.setDate(2, Date.valueOf(fim));
+            if (contaId != null) {
+                stmt.setInt(3, contaId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.accept(mapResultSetToTransacao(rs, referencias));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao percorrer transações do período: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar transações do período.", e);
+        }
+    }
+
+    // Todas as transações em ordem de (data, id); categoria ausente chega como 0
+    public void streamResumo(Connection conn, ConsumidorResumo consumidor) {
+        String sql = "SELECT id, data, valor, tipo, categoria_id, conta_id FROM transacoes ORDER BY data, id";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(TAMANHO_FETCH);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.aceitar(rs.getInt("id"), rs.getDate("data").toLocalDate().toEpochDay(),
+                            Dinheiro.ler(rs, "valor"), TipoCategoria.valueOf(rs.getString("tipo")),
+                            rs.getInt("categoria_id"), rs.getInt("conta_id"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao percorrer resumo das transações: " + e.getMessage());
+            throw new RuntimeException("Erro ao carregar transações.", e);
+        }
+    }
+
+    public TotaisPeriodo sumByTipoBetween(LocalDate inicio, LocalDate fim, Connection conn) {
+        String sql = "SELECT tipo, SUM(valor) AS total, " +
+                "SUM(CASE WHEN categoria_id IS NOT NULL THEN valor ELSE 0 END) AS total_categorizado " +
+                "FROM transacoes WHERE data BETWEEN ? AND ? GROUP BY tipo";
+        long receitas = 0, despesas = 0, receitasCategorizadas = 0, despesasCategorizadas = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(inicio));
+            stmt.setDate(2, Date.valueOf(fim));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    TipoCategoria tipo = TipoCategoria.valueOf(rs.getString("tipo"));
+                    long total = Dinheiro.ler(rs, "total");
+                    long totalCategorizado = Dinheiro.ler(rs, "total_categorizado");
+                    if (tipo == TipoCategoria.RECEITA) {
+                        receitas = total;
+                        receitasCategorizadas = totalCategorizado;
+                    } else {
+                        despesas = total;
+                        despesasCategorizadas = totalCategorizado;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao somar transações por tipo no período: " + e.getMessage());
+            throw new RuntimeException("Erro ao calcular totais do período.", e);
+        }
+        return new TotaisPeriodo(receitas, despesas, receitasCategorizadas, despesasCategorizadas);
+    }
+
+    public Map<String, Long> sumDespesasByCategoriaBetween(LocalDate inicio, LocalDate fim, Connection conn) {
+        Map<String, Long> despesas = new LinkedHashMap<>();
+        String sql = "SELECT c.nome, SUM(t.valor) AS total " +
+                "FROM transacoes t JOIN categorias c ON c.id = t.categoria_id " +
+                "WHERE t.tipo = ? AND t.data BETWEEN ? AND ? " +
+                "GROUP BY c.nome ORDER BY total DESC";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, TipoCategoria.DESPESA.name());
+            stmt.setDate(2, Date.valueOf(inicio));
+            stmt.setDate(3, Date.valueOf(fim));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    despesas.put(rs.getString("nome"), Dinheiro.ler(rs, "total"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao somar despesas por categoria no período: " + e.getMessage());
+            throw new RuntimeException("Erro ao calcular despesas por categoria.", e);
+        }
+        return despesas;
+    }
+
+    // Série esparsa do patrimônio: uma linha de abertura (dia anterior a "inicio", com saldos iniciais
+    // e todo o histórico anterior) seguida de uma linha por dia com movimentação, já acumulada
+    public void streamPatrimonioDiario(LocalDate inicio, LocalDate fim, Connection conn, ObjLongConsumer<LocalDate> consumidor) {
+        String variacao = "SUM(CASE WHEN tipo = 'RECEITA' THEN valor ELSE -valor END)";
+        String sql = "WITH variacoes (data, variacao) AS (" +
+                "SELECT CAST(? AS DATE), (SELECT COALESCE(SUM(saldo_inicial), 0) FROM contas) + COALESCE(" + variacao + ", 0) " +
+                "FROM transacoes WHERE data < ? " +
+                "UNION ALL " +
+                "SELECT data, " + variacao + " FROM transacoes WHERE data BETWEEN ? AND ? GROUP BY data" +
+                ") " +
+                "SELECT data, SUM(variacao) OVER (ORDER BY data ROWS UNBOUNDED PRECEDING) AS patrimonio " +
+                "FROM variacoes ORDER BY data";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(inicio.minusDays(1)));
+            stmt.setDate(2, Date.valueOf(inicio));
+            stmt.setDate(3, Date.valueOf(inicio));
+            stmt.setDate(4, Date.valueOf(fim));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.accept(rs.getDate("data").toLocalDate(), Dinheiro.ler(rs, "patrimonio"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao calcular evolução do patrimônio: " + e.getMessage());
+            throw new RuntimeException("Erro ao calcular evolução do patrimônio.", e);
+        }
+    }
+
+    private Map<Integer, Movimento> findMovimentos(List<Integer> ids, Connection conn) {
+        Map<Integer, Movimento> movimentos = new HashMap<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_CONSULTA) {
+            List<Integer> lote = ids.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, ids.size()));
+            String sql = "SELECT id, valor, data, tipo, categoria_id, conta_id FROM transacoes WHERE id IN (" +
+                    String.join(", ", Collections.nCopies(lote.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < lote.size(); i++) {
+                    stmt.setInt(i + 1, lote.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        movimentos.put(rs.getInt("id"), mapResultSetToMovimento(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                System.err.println("Erro ao buscar valores anteriores das transações: " + e.getMessage());
+                throw new RuntimeException("Erro ao buscar transações.", e);
+            }
+        }
+        return movimentos;
+    }
+
+    private Movimento findMovimento(int id, Connection conn) {
+        String sql = "SELECT valor, data, tipo, categoria_id, conta_id FROM transacoes WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToMovimento(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Erro ao buscar valores anteriores da transação: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar transação.", e);
+        }
+        return null;
+    }
+
+    private int bindCampos(PreparedStatement stmt, int indice, Transacao transacao) throws SQLException {
+        stmt.setString(indice++, transacao.getDescricao());
+        Dinheiro.bind(stmt, indice++, transacao.getValorCentavos());
+        stmt.setDate(indice++, Date.valueOf(transacao.getData()));
+        stmt.setString(indice++, transacao.getTipo().name());
+
+        if (transacao.getCategoria() != null) {
+            stmt.setInt(indice++, transacao.getCategoria().getId());
+        } else {
+            stmt.setNull(indice++, java.sql.Types.INTEGER);
+        }
+
+        if (transacao.getConta() != null) {
+            stmt.setInt(indice++, transacao.getConta().getId());
+        } else {
+            stmt.setNull(indice++, java.sql.Types.INTEGER);
+        }
+        return indice;
+    }
+
+    private Transacao mapResultSetToTransacao(ResultSet rs, MapeamentoReferencias referencias) throws SQLException {
         int id = rs.getInt("id");
         String descricao = rs.getString("descricao");
-        double valor = rs.getDouble("valor");
+        long valor = Dinheiro.ler(rs, "valor");
         LocalDate data = rs.getDate("data").toLocalDate();
         TipoCategoria tipo = TipoCategoria.valueOf(rs.getString("tipo"));
+        Categoria categoria = referencias.categoria(rs);
+        Conta conta = referencias.conta(rs);
+
+        return new Transacao(id, descricao, valor, data, tipo, categoria, conta);
+    }
+
+    private Movimento mapResultSetToMovimento(ResultSet rs) throws SQLException {
+        return new Movimento(rs.getObject("conta_id", Integer.class), rs.getObject("categoria_id", Integer.class),
+                TipoCategoria.valueOf(rs.getString("tipo")), rs.getDate("data").toLocalDate(), Dinheiro.ler(rs, "valor"));
+    }
 
-        Integer categoriaId = rs.getObject("categoria_id", Integer.class);
-        Categoria categoria = null;
-        if (categoriaId != null) {
-            categoria = categoriaDAO.findById(categoriaId, conn);
+    // Efeito de uma transação sobre as projeções (saldos_conta e gastos_categoria_mes)
+    private static class Movimento {
+        private final Integer contaId;
+        private final Integer categoriaId;
+        private final TipoCategoria tipo;
+        private final LocalDate data;
+        private final long valor;
+
+        private Movimento(Integer contaId, Integer categoriaId, TipoCategoria tipo, LocalDate data, long valor) {
+            this.contaId = contaId;
+            this.categoriaId = categoriaId;
+            this.tipo = tipo;
+            this.data = data;
+            this.valor = valor;
         }
 
-        Integer contaId = rs.getObject("conta_id", Integer.class);
-        Conta conta = null;
-        if (contaId != null) {
-            conta = contaDAO.findById(contaId, conn);
+        private static Movimento de(Transacao transacao) {
+            return new Movimento(
+                    transacao.getConta() != null ? transacao.getConta().getId() : null,
+                    transacao.getCategoria() != null ? transacao.getCategoria().getId() : null,
+                    transacao.getTipo(), transacao.getData(), transacao.getValorCentavos());
         }
+    }
 
-        return new Transacao(id, descricao, valor, data, tipo, categoria, conta);
+    // Acumula os deltas de uma operação e aplica uma vez por conta e por categoria/mês
+    private class Projecoes {
+        private final Map<Integer, Long> saldos = new HashMap<>();
+        private final Map<GastoCategoriaMesDAO.Chave, Long> gastos = new HashMap<>();
+
+        private void somar(Movimento movimento) {
+            acumular(movimento, 1);
+        }
+
+        private void subtrair(Movimento movimento) {
+            acumular(movimento, -1);
+        }
+
+        private void acumular(Movimento movimento, int sinal) {
+            if (movimento == null) {
+                return;
+            }
+            if (movimento.contaId != null) {
+                saldos.merge(movimento.contaId, sinal * SaldoContaDAO.delta(movimento.tipo, movimento.valor), Long::sum);
+            }
+            if (GastoCategoriaMesDAO.contabiliza(movimento.tipo, movimento.categoriaId)) {
+                gastos.merge(new GastoCategoriaMesDAO.Chave(movimento.categoriaId, movimento.data), sinal * movimento.valor, Long::sum);
+            }
+        }
+
+        private void aplicar(Connection conn) {
+            saldos.forEach((contaId, delta) -> saldoContaDAO.aplicarDelta(contaId, delta, conn));
+            gastos.forEach((chave, delta) -> gastoCategoriaMesDAO.aplicarDelta(chave, delta, conn));
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,8 @@
 package com.controle.dao;
 
-import com.controle.model.Categoria;
-import com.controle.model.Conta;
 import com.controle.model.TipoCategoria;
 import com.controle.model.TransacaoRecorrente;
+import com.controle.util.Dinheiro;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -18,22 +17,27 @@ import java.sql.Connection;
 
 public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Integer> {
 
-    private final CategoriaDAO categoriaDAO;
-    private final ContaDAO contaDAO;
+    private static final String SELECT_RECORRENTE = "SELECT tr.id, tr.descricao, tr.valor, tr.tipo, tr.categoria_id, tr.conta_id, " +
+            "tr.dia_do_mes, tr.data_inicio, tr.data_fim, tr.data_ultimo_processamento, " +
+            MapeamentoReferencias.COLUNAS_CATEGORIA + ", " + MapeamentoReferencias.COLUNAS_CONTA + " " +
+            "FROM transacoes_recorrentes tr " +
+            "LEFT JOIN categorias c ON c.id = tr.categoria_id " +
+            "LEFT JOIN contas ct ON ct.id = tr.conta_id";
 
-    public TransacaoRecorrenteDAO(CategoriaDAO categoriaDAO, ContaDAO contaDAO) {
+    private final IndiceBuscaDAO indiceBuscaDAO;
+
+    public TransacaoRecorrenteDAO(IndiceBuscaDAO indiceBuscaDAO) {
         super();
-        this.categoriaDAO = categoriaDAO;
-        this.contaDAO = contaDAO;
+        this.indiceBuscaDAO = indiceBuscaDAO;
     }
 
     public void save(TransacaoRecorrente tr, Connection conn) {
         String sql = "INSERT INTO transacoes_recorrentes (descricao, valor, tipo, categoria_id, conta_id, dia_do_mes, data_inicio, data_fim, data_ultimo_processamento) " +
-                "OUTPUT INSERTED.id VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, tr.getDescricao());
-            stmt.setDouble(2, tr.getValor());
+            Dinheiro.bind(stmt, 2, tr.getValorCentavos());
             stmt.setString(3, tr.getTipo().name());
             stmt.setInt(4, tr.getCategoria().getId());
             stmt.setInt(5, tr.getConta().getId());
@@ -52,11 +56,13 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
                 stmt.setNull(9, Types.DATE);
             }
 
-            try (ResultSet rs = stmt.executeQuery()) {
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
                     tr.setId(rs.getInt(1));
                 }
             }
+            indiceBuscaDAO.indexar(IndiceBuscaDAO.RECORRENTE, tr.getId(), tr.getDescricao(), conn);
         } catch (SQLException e) {
             System.err.println("Erro ao salvar transação recorrente: " + e.getMessage());
             throw new RuntimeException("Erro ao salvar transação recorrente.", e);
@@ -64,12 +70,12 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
     }
 
     public TransacaoRecorrente findById(Integer id, Connection conn) {
-        String sql = "SELECT * FROM transacoes_recorrentes WHERE id = ?";
+        String sql = SELECT_RECORRENTE + " WHERE tr.id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToTransacaoRecorrente(rs, conn);
+                    return mapResultSetToTransacaoRecorrente(rs, new MapeamentoReferencias());
                 }
             }
         } catch (SQLException e) {
@@ -81,11 +87,12 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
 
     public List<TransacaoRecorrente> findAll(Connection conn) {
         List<TransacaoRecorrente> lista = new ArrayList<>();
-        String sql = "SELECT * FROM transacoes_recorrentes";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_RECORRENTE;
         try (Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                lista.add(mapResultSetToTransacaoRecorrente(rs, conn));
+                lista.add(mapResultSetToTransacaoRecorrente(rs, referencias));
             }
         } catch (SQLException e) {
             System.err.println("Erro ao buscar todas as transações recorrentes: " + e.getMessage());
@@ -101,7 +108,7 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
 
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, tr.getDescricao());
-            stmt.setDouble(2, tr.getValor());
+            Dinheiro.bind(stmt, 2, tr.getValorCentavos());
             stmt.setString(3, tr.getTipo().name());
             stmt.setInt(4, tr.getCategoria().getId());
             stmt.setInt(5, tr.getConta().getId());
@@ -122,6 +129,7 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
 
             stmt.setInt(10, tr.getId());
             stmt.executeUpdate();
+            indiceBuscaDAO.indexar(IndiceBuscaDAO.RECORRENTE, tr.getId(), tr.getDescricao(), conn);
         } catch (SQLException e) {
             System.err.println("Erro ao atualizar transação recorrente: " + e.getMessage());
             throw new RuntimeException("Erro ao atualizar transação recorrente.", e);
@@ -132,43 +140,69 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
         String sql = "DELETE FROM transacoes_recorrentes WHERE id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
-            stmt.executeUpdate();
+            if (stmt.executeUpdate() > 0) {
+                indiceBuscaDAO.remover(IndiceBuscaDAO.RECORRENTE, id, conn);
+            }
         } catch (SQLException e) {
             System.err.println("Erro ao excluir transação recorrente: " + e.getMessage());
             throw new RuntimeException("Erro ao excluir transação recorrente.", e);
         }
     }
 
-    public List<TransacaoRecorrente> findAllAtivas(LocalDate dataReferencia, Connection conn) {
+    // Regras que ainda podem ter ocorrências não lançadas até a data informada, inclusive as que
+    // terminaram depois do último processamento
+    public List<TransacaoRecorrente> findPendentes(LocalDate ate, Connection conn) {
         List<TransacaoRecorrente> lista = new ArrayList<>();
-        String sql = "SELECT * FROM transacoes_recorrentes " +
-                "WHERE data_inicio <= ? AND (data_fim IS NULL OR data_fim >= ?)";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_RECORRENTE + " " +
+                "WHERE tr.data_inicio <= ? " +
+                "AND (tr.data_ultimo_processamento IS NULL OR tr.data_ultimo_processamento < ?) " +
+                "AND (tr.data_fim IS NULL OR tr.data_ultimo_processamento IS NULL OR tr.data_fim > tr.data_ultimo_processamento)";
 
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setDate(1, Date.valueOf(dataReferencia));
-            stmt.setDate(2, Date.valueOf(dataReferencia));
+            stmt.setDate(1, Date.valueOf(ate));
+            stmt.setDate(2, Date.valueOf(ate));
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    lista.add(mapResultSetToTransacaoRecorrente(rs, conn));
+                    lista.add(mapResultSetToTransacaoRecorrente(rs, referencias));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar transações recorrentes ativas: " + e.getMessage());
-            throw new RuntimeException("Erro ao buscar transações recorrentes ativas.", e);
+            System.err.println("Erro ao buscar transações recorrentes pendentes: " + e.getMessage());
+            throw new RuntimeException("Erro ao buscar transações recorrentes pendentes.", e);
         }
         return lista;
     }
 
-    public List<TransacaoRecorrente> findAllByDescriptionLike(String termoBusca, Connection conn) {
+    public void updateUltimoProcessamento(List<Integer> ids, LocalDate data, Connection conn) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE transacoes_recorrentes SET data_ultimo_processamento = ? WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Integer id : ids) {
+                stmt.setDate(1, Date.valueOf(data));
+                stmt.setInt(2, id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException e) {
+            System.err.println("Erro ao registrar processamento das transações recorrentes: " + e.getMessage());
+            throw new RuntimeException("Erro ao registrar processamento das transações recorrentes.", e);
+        }
+    }
+
+    public List<TransacaoRecorrente> findAllByTermos(List<String> termos, Connection conn) {
         List<TransacaoRecorrente> lista = new ArrayList<>();
-        String sql = "SELECT * FROM transacoes_recorrentes WHERE descricao LIKE ?";
+        MapeamentoReferencias referencias = new MapeamentoReferencias();
+        String sql = SELECT_RECORRENTE + (termos.isEmpty() ? "" : " WHERE " + IndiceBuscaDAO.filtro("tr.id", termos.size()));
 
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, "%" + termoBusca + "%");
+            IndiceBuscaDAO.bindTermos(stmt, 1, IndiceBuscaDAO.RECORRENTE, termos);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    lista.add(mapResultSetToTransacaoRecorrente(rs, conn));
+                    lista.add(mapResultSetToTransacaoRecorrente(rs, referencias));
                 }
             }
         } catch (SQLException e) {
@@ -178,11 +212,11 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
         return lista;
     }
 
-    private TransacaoRecorrente mapResultSetToTransacaoRecorrente(ResultSet rs, Connection conn) throws SQLException {
+    private TransacaoRecorrente mapResultSetToTransacaoRecorrente(ResultSet rs, MapeamentoReferencias referencias) throws SQLException {
         TransacaoRecorrente tr = new TransacaoRecorrente();
         tr.setId(rs.getInt("id"));
         tr.setDescricao(rs.getString("descricao"));
-        tr.setValor(rs.getDouble("valor"));
+        tr.setValorCentavos(Dinheiro.ler(rs, "valor"));
         tr.setTipo(TipoCategoria.valueOf(rs.getString("tipo")));
         tr.setDiaDoMes(rs.getInt("dia_do_mes"));
         tr.setDataInicio(rs.getDate("data_inicio").toLocalDate());
@@ -193,13 +227,8 @@ public class TransacaoRecorrenteDAO extends AbstractDAO<TransacaoRecorrente, Int
         Date dataUltimoSQL = rs.getDate("data_ultimo_processamento");
         tr.setDataUltimoProcessamento(dataUltimoSQL != null ? dataUltimoSQL.toLocalDate() : null);
 
-        int categoriaId = rs.getInt("categoria_id");
-        Categoria cat = categoriaDAO.findById(categoriaId, conn);
-        tr.setCategoria(cat);
-
-        int contaId = rs.getInt("conta_id");
-        Conta conta = contaDAO.findById(contaId, conn);
-        tr.setConta(conta);
+        tr.setCategoria(referencias.categoria(rs));
+        tr.setConta(referencias.conta(rs));
 
         return tr;
     }
@@ -0,0 +1,33 @@
+package com.controle.model;
+
+import com.controle.util.Dinheiro;
+
+// Orçamento de um mês junto com o quanto já foi gasto na categoria (valores em centavos)
+public class ConsumoOrcamento {
+
+    private final Orcamento orcamento;
+    private final long gastoCentavos;
+
+    public ConsumoOrcamento(Orcamento orcamento, long gastoCentavos) {
+        this.orcamento = orcamento;
+        this.gastoCentavos = gastoCentavos;
+    }
+
+    public Orcamento getOrcamento() { return orcamento; }
+    public int getId() { return orcamento.getId(); }
+    public Categoria getCategoria() { return orcamento.getCategoria(); }
+    public int getMes() { return orcamento.getMes(); }
+    public int getAno() { return orcamento.getAno(); }
+
+    public long getValorLimiteCentavos() { return orcamento.getValorLimiteCentavos(); }
+    public long getGastoCentavos() { return gastoCentavos; }
+    public long getRestanteCentavos() { return orcamento.getValorLimiteCentavos() - gastoCentavos; }
+    public boolean isExcedido() { return gastoCentavos > orcamento.getValorLimiteCentavos(); }
+
+    @Override
+    public String toString() {
+        return String.format("ConsumoOrcamento[Cat=%s, Limite=%s, Gasto=%s, Restante=%s]",
+                orcamento.getCategoria().getNome(), Dinheiro.paraBigDecimal(getValorLimiteCentavos()),
+                Dinheiro.paraBigDecimal(gastoCentavos), Dinheiro.paraBigDecimal(getRestanteCentavos()));
+    }
+}
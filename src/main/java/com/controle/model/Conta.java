@@ -3,19 +3,19 @@ package com.controle.model;
 public class Conta {
     private int id;
     private String nome;
-    private double saldoInicial;
+    private long saldoInicialCentavos;
     private TipoConta tipo;
 
-    public Conta(String nome, double saldoInicial, TipoConta tipo) {
+    public Conta(String nome, long saldoInicialCentavos, TipoConta tipo) {
         this.nome = nome;
-        this.saldoInicial = saldoInicial;
+        this.saldoInicialCentavos = saldoInicialCentavos;
         this.tipo = tipo;
     }
 
-    public Conta(int id, String nome, double saldoInicial, TipoConta tipo) {
+    public Conta(int id, String nome, long saldoInicialCentavos, TipoConta tipo) {
         this.id = id;
         this.nome = nome;
-        this.saldoInicial = saldoInicial;
+        this.saldoInicialCentavos = saldoInicialCentavos;
         this.tipo = tipo;
     }
 
@@ -23,8 +23,8 @@ public class Conta {
     public void setId(int id) { this.id = id; }
     public String getNome() { return nome; }
     public void setNome(String nome) { this.nome = nome; }
-    public double getSaldoInicial() { return saldoInicial; }
-    public void setSaldoInicial(double saldoInicial) { this.saldoInicial = saldoInicial; }
+    public long getSaldoInicialCentavos() { return saldoInicialCentavos; }
+    public void setSaldoInicialCentavos(long saldoInicialCentavos) { this.saldoInicialCentavos = saldoInicialCentavos; }
     public TipoConta getTipo() { return tipo; }
     public void setTipo(TipoConta tipo) { this.tipo = tipo; }
 
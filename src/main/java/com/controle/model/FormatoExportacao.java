@@ -0,0 +1,16 @@
+package com.controle.model;
+
+public enum FormatoExportacao {
+    CSV("csv"),
+    OFX("ofx");
+
+    private final String extensao;
+
+    FormatoExportacao(String extensao) {
+        this.extensao = extensao;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
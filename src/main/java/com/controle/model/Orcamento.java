@@ -1,27 +1,29 @@
 package com.controle.model;
 
+import com.controle.util.Dinheiro;
+
 public class Orcamento {
 
     private int id;
     private Categoria categoria; // A categoria de DESPESA que está sendo orçada
-    private double valorLimite;
+    private long valorLimiteCentavos;
     private int mes;
     private int ano;
 
     // Construtor para novos orçamentos
-    public Orcamento(Categoria categoria, double valorLimite, int mes, int ano) {
+    public Orcamento(Categoria categoria, long valorLimiteCentavos, int mes, int ano) {
         if (categoria.getTipo() != TipoCategoria.DESPESA) {
             throw new IllegalArgumentException("Orçamentos só podem ser definidos para categorias de DESPESA.");
         }
         this.categoria = categoria;
-        this.valorLimite = valorLimite;
+        this.valorLimiteCentavos = valorLimiteCentavos;
         this.mes = mes;
         this.ano = ano;
     }
 
     // Construtor completo (para buscar do DB)
-    public Orcamento(int id, Categoria categoria, double valorLimite, int mes, int ano) {
-        this(categoria, valorLimite, mes, ano);
+    public Orcamento(int id, Categoria categoria, long valorLimiteCentavos, int mes, int ano) {
+        this(categoria, valorLimiteCentavos, mes, ano);
         this.id = id;
     }
 
@@ -29,8 +31,8 @@ public class Orcamento {
     public void setId(int id) { this.id = id; }
     public Categoria getCategoria() { return categoria; }
     public void setCategoria(Categoria categoria) { this.categoria = categoria; }
-    public double getValorLimite() { return valorLimite; }
-    public void setValorLimite(double valorLimite) { this.valorLimite = valorLimite; }
+    public long getValorLimiteCentavos() { return valorLimiteCentavos; }
+    public void setValorLimiteCentavos(long valorLimiteCentavos) { this.valorLimiteCentavos = valorLimiteCentavos; }
     public int getMes() { return mes; }
     public void setMes(int mes) { this.mes = mes; }
     public int getAno() { return ano; }
@@ -38,7 +40,7 @@ public class Orcamento {
 
     @Override
     public String toString() {
-        return String.format("Orcamento[ID=%d, Cat=%s, Limite=%.2f, Mes/Ano=%d/%d]",
-                id, categoria.getNome(), valorLimite, mes, ano);
+        return String.format("Orcamento[ID=%d, Cat=%s, Limite=%s, Mes/Ano=%d/%d]",
+                id, categoria.getNome(), Dinheiro.paraBigDecimal(valorLimiteCentavos), mes, ano);
     }
 }
\ No newline at end of file
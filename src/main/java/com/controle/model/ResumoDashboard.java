@@ -0,0 +1,45 @@
+package com.controle.model;
+
+import com.controle.util.Dinheiro;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ResumoDashboard {
+
+    private final LocalDate inicio;
+    private final LocalDate fim;
+    private final TotaisPeriodo totais;
+    private final Map<String, Long> despesasPorCategoria;
+    private final Map<LocalDate, Long> evolucaoPatrimonio;
+
+    public ResumoDashboard(LocalDate inicio, LocalDate fim, TotaisPeriodo totais,
+                           Map<String, Long> despesasPorCategoria, Map<LocalDate, Long> evolucaoPatrimonio) {
+        this.inicio = inicio;
+        this.fim = fim;
+        this.totais = totais;
+        this.despesasPorCategoria = Collections.unmodifiableMap(new LinkedHashMap<>(despesasPorCategoria));
+        this.evolucaoPatrimonio = Collections.unmodifiableMap(new TreeMap<>(evolucaoPatrimonio));
+    }
+
+    public LocalDate getInicio() { return inicio; }
+    public LocalDate getFim() { return fim; }
+    public TotaisPeriodo getTotais() { return totais; }
+
+    public long getBalanco() { return totais.getBalanco(); }
+    public long getTotalReceitas() { return totais.getReceitasCategorizadas(); }
+    public long getTotalDespesas() { return totais.getDespesasCategorizadas(); }
+
+    public Map<String, Long> getDespesasPorCategoria() { return despesasPorCategoria; }
+    public Map<LocalDate, Long> getEvolucaoPatrimonio() { return evolucaoPatrimonio; }
+
+    @Override
+    public String toString() {
+        return String.format("ResumoDashboard[%s a %s, Balanço=%s, Receitas=%s, Despesas=%s, Categorias=%d, Dias=%d]",
+                inicio, fim, Dinheiro.paraBigDecimal(getBalanco()), Dinheiro.paraBigDecimal(getTotalReceitas()),
+                Dinheiro.paraBigDecimal(getTotalDespesas()),
+                despesasPorCategoria.size(), evolucaoPatrimonio.size());
+    }
+}
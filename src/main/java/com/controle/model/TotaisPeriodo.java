@@ -0,0 +1,34 @@
+package com.controle.model;
+
+import com.controle.util.Dinheiro;
+
+public class TotaisPeriodo {
+
+    private final long totalReceitas;
+    private final long totalDespesas;
+    private final long receitasCategorizadas;
+    private final long despesasCategorizadas;
+
+    // Valores em centavos
+    public TotaisPeriodo(long totalReceitas, long totalDespesas, long receitasCategorizadas, long despesasCategorizadas) {
+        this.totalReceitas = totalReceitas;
+        this.totalDespesas = totalDespesas;
+        this.receitasCategorizadas = receitasCategorizadas;
+        this.despesasCategorizadas = despesasCategorizadas;
+    }
+
+    // Inclui movimentações entre contas (transações sem categoria)
+    public long getTotalReceitas() { return totalReceitas; }
+    public long getTotalDespesas() { return totalDespesas; }
+    public long getBalanco() { return totalReceitas - totalDespesas; }
+
+    public long getReceitasCategorizadas() { return receitasCategorizadas; }
+    public long getDespesasCategorizadas() { return despesasCategorizadas; }
+
+    @Override
+    public String toString() {
+        return String.format("TotaisPeriodo[Receitas=%s, Despesas=%s, ReceitasCat=%s, DespesasCat=%s]",
+                Dinheiro.paraBigDecimal(totalReceitas), Dinheiro.paraBigDecimal(totalDespesas),
+                Dinheiro.paraBigDecimal(receitasCategorizadas), Dinheiro.paraBigDecimal(despesasCategorizadas));
+    }
+}
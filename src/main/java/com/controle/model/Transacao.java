@@ -1,29 +1,30 @@
 package com.controle.model;
 
+import com.controle.util.Dinheiro;
 import java.time.LocalDate;
 
 public class Transacao {
     private int id;
     private String descricao;
-    private double valor;
+    private long valorCentavos;
     private LocalDate data;
     private TipoCategoria tipo;
     private Categoria categoria;
     private Conta conta;
 
-    public Transacao(int id, String descricao, double valor, LocalDate data, TipoCategoria tipo, Categoria categoria, Conta conta) {
+    public Transacao(int id, String descricao, long valorCentavos, LocalDate data, TipoCategoria tipo, Categoria categoria, Conta conta) {
         this.id = id;
         this.descricao = descricao;
-        this.valor = valor;
+        this.valorCentavos = valorCentavos;
         this.data = data;
         this.tipo = tipo;
         this.categoria = categoria;
         this.conta = conta;
     }
 
-    public Transacao(String descricao, double valor, LocalDate data, TipoCategoria tipo, Categoria categoria, Conta conta) {
+    public Transacao(String descricao, long valorCentavos, LocalDate data, TipoCategoria tipo, Categoria categoria, Conta conta) {
         this.descricao = descricao;
-        this.valor = valor;
+        this.valorCentavos = valorCentavos;
         this.data = data;
         this.tipo = tipo;
         this.categoria = categoria;
@@ -34,8 +35,8 @@ public class Transacao {
     public void setId(int id) { this.id = id; }
     public String getDescricao() { return descricao; }
     public void setDescricao(String descricao) { this.descricao = descricao; }
-    public double getValor() { return valor; }
-    public void setValor(double valor) { this.valor = valor; }
+    public long getValorCentavos() { return valorCentavos; }
+    public void setValorCentavos(long valorCentavos) { this.valorCentavos = valorCentavos; }
     public LocalDate getData() { return data; }
     public void setData(LocalDate data) { this.data = data; }
     public TipoCategoria getTipo() { return tipo; }
@@ -50,7 +51,7 @@ public class Transacao {
         return "Transacao{" +
                 "id=" + id +
                 ", descricao='" + descricao + '\'' +
-                ", valor=" + valor +
+                ", valor=" + Dinheiro.paraBigDecimal(valorCentavos) +
                 ", data=" + data +
                 ", tipo=" + tipo +
                 ", categoria=" + (categoria != null ? categoria.getNome() : "N/A") +
@@ -6,7 +6,7 @@ public class TransacaoRecorrente {
 
     private int id;
     private String descricao;
-    private double valor;
+    private long valorCentavos;
     private TipoCategoria tipo;
     private Categoria categoria;
     private Conta conta;
@@ -15,9 +15,9 @@ public class TransacaoRecorrente {
     private LocalDate dataFim;
     private LocalDate dataUltimoProcessamento;
 
-    public TransacaoRecorrente(String descricao, double valor, TipoCategoria tipo, Categoria categoria, Conta conta, int diaDoMes, LocalDate dataInicio, LocalDate dataFim) {
+    public TransacaoRecorrente(String descricao, long valorCentavos, TipoCategoria tipo, Categoria categoria, Conta conta, int diaDoMes, LocalDate dataInicio, LocalDate dataFim) {
         this.descricao = descricao;
-        this.valor = valor;
+        this.valorCentavos = valorCentavos;
         this.tipo = tipo;
         this.categoria = categoria;
         this.conta = conta;
@@ -26,8 +26,8 @@ public class TransacaoRecorrente {
         this.dataFim = dataFim;
     }
 
-    public TransacaoRecorrente(int id, String descricao, double valor, TipoCategoria tipo, Categoria categoria, Conta conta, int diaDoMes, LocalDate dataInicio, LocalDate dataFim, LocalDate dataUltimoProcessamento) {
-        this(descricao, valor, tipo, categoria, conta, diaDoMes, dataInicio, dataFim);
+    public TransacaoRecorrente(int id, String descricao, long valorCentavos, TipoCategoria tipo, Categoria categoria, Conta conta, int diaDoMes, LocalDate dataInicio, LocalDate dataFim, LocalDate dataUltimoProcessamento) {
+        this(descricao, valorCentavos, tipo, categoria, conta, diaDoMes, dataInicio, dataFim);
         this.id = id;
         this.dataUltimoProcessamento = dataUltimoProcessamento;
     }
@@ -38,8 +38,8 @@ public class TransacaoRecorrente {
     public void setId(int id) { this.id = id; }
     public String getDescricao() { return descricao; }
     public void setDescricao(String descricao) { this.descricao = descricao; }
-    public double getValor() { return valor; }
-    public void setValor(double valor) { this.valor = valor; }
+    public long getValorCentavos() { return valorCentavos; }
+    public void setValorCentavos(long valorCentavos) { this.valorCentavos = valorCentavos; }
     public TipoCategoria getTipo() { return tipo; }
     public void setTipo(TipoCategoria tipo) { this.tipo = tipo; }
     public Categoria getCategoria() { return categoria; }
@@ -0,0 +1,421 @@
+package com.controle.service;
+
+import com.controle.dao.CategoriaDAO;
+import com.controle.dao.ContaDAO;
+import com.controle.dao.TransacaoDAO;
+import com.controle.model.Categoria;
+import com.controle.model.Conta;
+import com.controle.model.TipoCategoria;
+import com.controle.model.TotaisPeriodo;
+import com.controle.model.Transacao;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjLongConsumer;
+
+// Cópia em memória das transações em colunas de tipos primitivos, ordenadas por (dia, id), para os
+// relatórios do painel: totais do período, despesas por categoria e evolução do patrimônio viram laços
+// sobre arrays, sem ida ao banco. É carregada uma vez e mantida pelo serviço após cada escrita
+// confirmada; escritas que o serviço não consegue reproduzir (ex.: lançamento de recorrências)
+// invalidam o armazém, que é recarregado na próxima leitura.
+public class ArmazemColunarTransacoes {
+
+    private static final byte RECEITA = 1;
+    private static final byte DESPESA = 2;
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean carregado = false;
+
+    private int tamanho = 0;
+    private int[] ids = new int[0];
+    private int[] dias = new int[0];
+    private long[] valores = new long[0];
+    private byte[] tipos = new byte[0];
+    private int[] categorias = new int[0];
+    private int[] contas = new int[0];
+
+    private final Map<Integer, String> nomesCategorias = new HashMap<>();
+    private final Map<Integer, Long> saldosIniciais = new HashMap<>();
+    private int maiorCategoriaId = 0;
+
+    // variacaoAcumulada[i] = soma das variações das linhas [0, i); refeito sob demanda após escritas
+    private volatile long[] variacaoAcumulada;
+
+    public boolean isCarregado() {
+        lock.readLock().lock();
+        try {
+            return carregado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void invalidar() {
+        lock.writeLock().lock();
+        try {
+            carregado = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Segura a trava de escrita durante a leitura do banco: escritas concorrentes esperam e são aplicadas
+    // por cima da carga. Como as aplicações são idempotentes (substituem por id), não há perda nem duplicação.
+    public void carregar(Connection conn, TransacaoDAO transacaoDAO, CategoriaDAO categoriaDAO, ContaDAO contaDAO) {
+        lock.writeLock().lock();
+        try {
+            long inicio = System.nanoTime();
+            nomesCategorias.clear();
+            saldosIniciais.clear();
+            maiorCategoriaId = 0;
+            for (Categoria categoria : categoriaDAO.findAll(conn)) {
+                registrarCategoriaInterno(categoria);
+            }
+            for (Conta conta : contaDAO.findAll(conn)) {
+                saldosIniciais.put(conta.getId(), conta.getSaldoInicialCentavos());
+            }
+
+            tamanho = 0;
+            garantirCapacidade(CAPACIDADE_INICIAL);
+            transacaoDAO.streamResumo(conn, (id, diaEpoca, valorCentavos, tipo, categoriaId, contaId) -> {
+                garantirCapacidade(tamanho + 1);
+                escrever(tamanho++, id, (int) diaEpoca, valorCentavos, codigo(tipo), categoriaId, contaId);
+            });
+            variacaoAcumulada = null;
+            carregado = true;
+            System.out.println(String.format("Armazém colunar carregado: %d transações em %.1f ms.",
+                    tamanho, (System.nanoTime() - inicio) / 1_000_000.0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void registrar(Transacao transacao) {
+        aplicar(List.of(transacao), List.of(), false);
+    }
+
+    public void registrarTodas(List<Transacao> transacoes) {
+        aplicar(transacoes, List.of(), false);
+    }
+
+    // Edições só substituem linhas existentes: um id que não está no armazém também não está no banco
+    public void atualizar(Transacao transacao) {
+        aplicar(List.of(transacao), List.of(), true);
+    }
+
+    public void atualizarTodas(List<Transacao> transacoes) {
+        aplicar(transacoes, List.of(), true);
+    }
+
+    public void remover(int id) {
+        aplicar(List.of(), List.of(id), false);
+    }
+
+    // Remove as linhas com os ids informados (e as versões anteriores das novas) e intercala as novas na ordem
+    private void aplicar(List<Transacao> novas, Collection<Integer> removidas, boolean somenteExistentes) {
+        lock.writeLock().lock();
+        try {
+            if (!carregado) {
+                return;
+            }
+            if (somenteExistentes) {
+                novas = existentes(novas);
+            }
+            int[] excluir = new int[novas.size() + removidas.size()];
+            int n = 0;
+            for (Transacao transacao : novas) {
+                excluir[n++] = transacao.getId();
+            }
+            for (Integer id : removidas) {
+                excluir[n++] = id;
+            }
+            Arrays.sort(excluir);
+            compactar(indice -> Arrays.binarySearch(excluir, ids[indice]) < 0);
+            intercalar(novas);
+            variacaoAcumulada = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void registrarCategoria(Categoria categoria) {
+        lock.writeLock().lock();
+        try {
+            registrarCategoriaInterno(categoria);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Espelha o ON DELETE SET NULL de transacoes.categoria_id
+    public void removerCategoria(int id) {
+        lock.writeLock().lock();
+        try {
+            nomesCategorias.remove(id);
+            for (int i = 0; i < tamanho; i++) {
+                if (categorias[i] == id) {
+                    categorias[i] = 0;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void registrarConta(Conta conta) {
+        lock.writeLock().lock();
+        try {
+            saldosIniciais.put(conta.getId(), conta.getSaldoInicialCentavos());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Espelha o ON DELETE CASCADE de transacoes.conta_id
+    public void removerConta(int id) {
+        lock.writeLock().lock();
+        try {
+            saldosIniciais.remove(id);
+            compactar(indice -> contas[indice] != id);
+            variacaoAcumulada = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getTamanho() {
+        lock.readLock().lock();
+        try {
+            return tamanho;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Mesmo resultado de TransacaoDAO.sumByTipoBetween
+    public TotaisPeriodo totais(LocalDate inicio, LocalDate fim) {
+        lock.readLock().lock();
+        try {
+            long receitas = 0, despesas = 0, receitasCategorizadas = 0, despesasCategorizadas = 0;
+            int ate = primeiroDepois(fim);
+            for (int i = primeiroAPartirDe(inicio); i < ate; i++) {
+                long valor = valores[i];
+                long categorizado = categorias[i] != 0 ? valor : 0;
+                if (tipos[i] == RECEITA) {
+                    receitas += valor;
+                    receitasCategorizadas += categorizado;
+                } else {
+                    despesas += valor;
+                    despesasCategorizadas += categorizado;
+                }
+            }
+            return new TotaisPeriodo(receitas, despesas, receitasCategorizadas, despesasCategorizadas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Mesmo resultado de TransacaoDAO.sumDespesasByCategoriaBetween: nome da categoria -> total, do maior para o menor
+    public Map<String, Long> despesasPorCategoria(LocalDate inicio, LocalDate fim) {
+        lock.readLock().lock();
+        try {
+            long[] totais = new long[maiorCategoriaId + 1];
+            boolean[] presentes = new boolean[maiorCategoriaId + 1];
+            int ate = primeiroDepois(fim);
+            for (int i = primeiroAPartirDe(inicio); i < ate; i++) {
+                int categoria = categorias[i];
+                if (tipos[i] == DESPESA && categoria != 0) {
+                    totais[categoria] += valores[i];
+                    presentes[categoria] = true;
+                }
+            }
+
+            List<Map.Entry<String, Long>> linhas = new ArrayList<>();
+            for (int categoria = 1; categoria < totais.length; categoria++) {
+                String nome = nomesCategorias.get(categoria);
+                if (presentes[categoria] && nome != null) {
+                    linhas.add(Map.entry(nome, totais[categoria]));
+                }
+            }
+            linhas.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> resultado = new LinkedHashMap<>();
+            linhas.forEach(linha -> resultado.put(linha.getKey(), linha.getValue()));
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Mesmo formato de TransacaoDAO.streamPatrimonioDiario: abertura no dia anterior a "inicio" e uma
+    // linha acumulada por dia com movimentação
+    public void percorrerPatrimonioDiario(LocalDate inicio, LocalDate fim, ObjLongConsumer<LocalDate> consumidor) {
+        lock.readLock().lock();
+        try {
+            long[] acumulada = variacaoAcumulada();
+            long saldoInicial = 0;
+            for (long saldo : saldosIniciais.values()) {
+                saldoInicial += saldo;
+            }
+            int de = primeiroAPartirDe(inicio);
+            int ate = primeiroDepois(fim);
+            long patrimonio = saldoInicial + acumulada[de];
+            consumidor.accept(inicio.minusDays(1), patrimonio);
+            int i = de;
+            while (i < ate) {
+                int dia = dias[i];
+                while (i < ate && dias[i] == dia) {
+                    i++;
+                }
+                consumidor.accept(LocalDate.ofEpochDay(dia), saldoInicial + acumulada[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Transacao> existentes(List<Transacao> transacoes) {
+        Set<Integer> procurados = new HashSet<>();
+        for (Transacao transacao : transacoes) {
+            procurados.add(transacao.getId());
+        }
+        Set<Integer> encontrados = new HashSet<>();
+        for (int i = 0; i < tamanho && encontrados.size() < procurados.size(); i++) {
+            if (procurados.contains(ids[i])) {
+                encontrados.add(ids[i]);
+            }
+        }
+        List<Transacao> existentes = new ArrayList<>();
+        for (Transacao transacao : transacoes) {
+            if (encontrados.contains(transacao.getId())) {
+                existentes.add(transacao);
+            }
+        }
+        return existentes;
+    }
+
+    private long[] variacaoAcumulada() {
+        long[] acumulada = variacaoAcumulada;
+        if (acumulada == null) {
+            acumulada = new long[tamanho + 1];
+            for (int i = 0; i < tamanho; i++) {
+                acumulada[i + 1] = acumulada[i] + (tipos[i] == RECEITA ? valores[i] : -valores[i]);
+            }
+            variacaoAcumulada = acumulada;
+        }
+        return acumulada;
+    }
+
+    private void registrarCategoriaInterno(Categoria categoria) {
+        nomesCategorias.put(categoria.getId(), categoria.getNome());
+        maiorCategoriaId = Math.max(maiorCategoriaId, categoria.getId());
+    }
+
+    private int primeiroAPartirDe(LocalDate data) {
+        return buscarDia(data.toEpochDay());
+    }
+
+    private int primeiroDepois(LocalDate data) {
+        return buscarDia(data.toEpochDay() + 1);
+    }
+
+    // Primeira posição com dia >= "dia"
+    private int buscarDia(long dia) {
+        int baixo = 0, alto = tamanho;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (dias[meio] < dia) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    @FunctionalInterface
+    private interface FiltroLinha {
+        boolean manter(int indice);
+    }
+
+    private void compactar(FiltroLinha filtro) {
+        int destino = 0;
+        for (int i = 0; i < tamanho; i++) {
+            if (filtro.manter(i)) {
+                if (destino != i) {
+                    escrever(destino, ids[i], dias[i], valores[i], tipos[i], categorias[i], contas[i]);
+                }
+                destino++;
+            }
+        }
+        tamanho = destino;
+    }
+
+    // Intercala de trás para frente, sem array auxiliar além das novas linhas ordenadas
+    private void intercalar(List<Transacao> novas) {
+        if (novas.isEmpty()) {
+            return;
+        }
+        List<Transacao> ordenadas = new ArrayList<>(novas);
+        ordenadas.sort(Comparator.comparing(Transacao::getData).thenComparingInt(Transacao::getId));
+        garantirCapacidade(tamanho + ordenadas.size());
+
+        int existente = tamanho - 1;
+        int nova = ordenadas.size() - 1;
+        int destino = tamanho + ordenadas.size() - 1;
+        while (nova >= 0) {
+            Transacao transacao = ordenadas.get(nova);
+            int dia = (int) transacao.getData().toEpochDay();
+            if (existente >= 0 && (dias[existente] > dia || (dias[existente] == dia && ids[existente] > transacao.getId()))) {
+                escrever(destino--, ids[existente], dias[existente], valores[existente], tipos[existente],
+                        categorias[existente], contas[existente]);
+                existente--;
+            } else {
+                escrever(destino--, transacao.getId(), dia, transacao.getValorCentavos(), codigo(transacao.getTipo()),
+                        transacao.getCategoria() != null ? transacao.getCategoria().getId() : 0,
+                        transacao.getConta() != null ? transacao.getConta().getId() : 0);
+                nova--;
+            }
+        }
+        tamanho += ordenadas.size();
+    }
+
+    private void escrever(int i, int id, int dia, long valor, byte tipo, int categoria, int conta) {
+        ids[i] = id;
+        dias[i] = dia;
+        valores[i] = valor;
+        tipos[i] = tipo;
+        categorias[i] = categoria;
+        contas[i] = conta;
+        if (categoria > maiorCategoriaId) {
+            maiorCategoriaId = categoria;
+        }
+    }
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo <= ids.length) {
+            return;
+        }
+        int capacidade = Math.max(minimo, Math.max(CAPACIDADE_INICIAL, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, capacidade);
+        dias = Arrays.copyOf(dias, capacidade);
+        valores = Arrays.copyOf(valores, capacidade);
+        tipos = Arrays.copyOf(tipos, capacidade);
+        categorias = Arrays.copyOf(categorias, capacidade);
+        contas = Arrays.copyOf(contas, capacidade);
+    }
+
+    private static byte codigo(TipoCategoria tipo) {
+        return tipo == TipoCategoria.RECEITA ? RECEITA : DESPESA;
+    }
+}
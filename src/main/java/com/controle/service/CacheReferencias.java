@@ -0,0 +1,120 @@
+package com.controle.service;
+
+import com.controle.model.Categoria;
+import com.controle.model.Conta;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class CacheReferencias {
+
+    private final Map<Integer, Categoria> categoriasPorId = new ConcurrentHashMap<>();
+    private final Map<String, Categoria> categoriasPorNome = new ConcurrentHashMap<>();
+    private final Map<Integer, Conta> contasPorId = new ConcurrentHashMap<>();
+    private final Map<String, Conta> contasPorNome = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Categoria categoriaPorId(int id, Supplier<Categoria> loader) {
+        Categoria categoria = categoriasPorId.get(id);
+        if (categoria != null) {
+            hits.incrementAndGet();
+            return categoria;
+        }
+        misses.incrementAndGet();
+        return registrar(loader.get());
+    }
+
+    public Categoria categoriaPorNome(String nome, Supplier<Categoria> loader) {
+        Categoria categoria = categoriasPorNome.get(nome);
+        if (categoria != null) {
+            hits.incrementAndGet();
+            return categoria;
+        }
+        misses.incrementAndGet();
+        return registrar(loader.get());
+    }
+
+    public Conta contaPorId(int id, Supplier<Conta> loader) {
+        Conta conta = contasPorId.get(id);
+        if (conta != null) {
+            hits.incrementAndGet();
+            return conta;
+        }
+        misses.incrementAndGet();
+        return registrar(loader.get());
+    }
+
+    public Conta contaPorNome(String nome, Supplier<Conta> loader) {
+        Conta conta = contasPorNome.get(nome);
+        if (conta != null) {
+            hits.incrementAndGet();
+            return conta;
+        }
+        misses.incrementAndGet();
+        return registrar(loader.get());
+    }
+
+    public synchronized Categoria registrar(Categoria categoria) {
+        if (categoria == null) {
+            return null;
+        }
+        Categoria copia = new Categoria(categoria.getId(), categoria.getNome(), categoria.getTipo());
+        Categoria anterior = categoriasPorId.put(copia.getId(), copia);
+        if (anterior != null) {
+            categoriasPorNome.remove(anterior.getNome(), anterior);
+        }
+        categoriasPorNome.put(copia.getNome(), copia);
+        return copia;
+    }
+
+    public synchronized Conta registrar(Conta conta) {
+        if (conta == null) {
+            return null;
+        }
+        Conta copia = new Conta(conta.getId(), conta.getNome(), conta.getSaldoInicialCentavos(), conta.getTipo());
+        Conta anterior = contasPorId.put(copia.getId(), copia);
+        if (anterior != null) {
+            contasPorNome.remove(anterior.getNome(), anterior);
+        }
+        contasPorNome.put(copia.getNome(), copia);
+        return copia;
+    }
+
+    public synchronized void removerCategoria(int id) {
+        Categoria anterior = categoriasPorId.remove(id);
+        if (anterior != null) {
+            categoriasPorNome.remove(anterior.getNome(), anterior);
+        }
+    }
+
+    public synchronized void removerConta(int id) {
+        Conta anterior = contasPorId.remove(id);
+        if (anterior != null) {
+            contasPorNome.remove(anterior.getNome(), anterior);
+        }
+    }
+
+    public synchronized void invalidarTudo() {
+        categoriasPorId.clear();
+        categoriasPorNome.clear();
+        contasPorId.clear();
+        contasPorNome.clear();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+
+    public double getTaxaAcerto() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheReferencias{categorias=%d, contas=%d, hits=%d, misses=%d, taxaAcerto=%.1f%%}",
+                categoriasPorId.size(), contasPorId.size(), getHits(), getMisses(), getTaxaAcerto() * 100);
+    }
+}
@@ -0,0 +1,60 @@
+package com.controle.service;
+
+import com.controle.model.Transacao;
+import com.controle.util.Dinheiro;
+import java.io.IOException;
+import java.io.Writer;
+
+// CSV no padrão do Excel em português: separador ";", vírgula decimal e BOM UTF-8 para os acentos
+public class EscritorCsv implements EscritorTransacoes {
+
+    private static final char SEPARADOR = ';';
+
+    private final Writer saida;
+
+    public EscritorCsv(Writer saida) {
+        this.saida = saida;
+    }
+
+    @Override
+    public void iniciar() throws IOException {
+        saida.write('\uFEFF');
+        saida.write("id;data;descricao;tipo;valor;categoria;conta\r\n");
+    }
+
+    @Override
+    public void escrever(Transacao transacao) throws IOException {
+        saida.write(Integer.toString(transacao.getId()));
+        saida.write(SEPARADOR);
+        saida.write(transacao.getData().toString());
+        saida.write(SEPARADOR);
+        escreverCampo(transacao.getDescricao());
+        saida.write(SEPARADOR);
+        saida.write(transacao.getTipo().name());
+        saida.write(SEPARADOR);
+        saida.write(Dinheiro.paraTexto(transacao.getValorCentavos()).replace('.', ','));
+        saida.write(SEPARADOR);
+        escreverCampo(transacao.getCategoria() != null ? transacao.getCategoria().getNome() : "");
+        saida.write(SEPARADOR);
+        escreverCampo(transacao.getConta() != null ? transacao.getConta().getNome() : "");
+        saida.write("\r\n");
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+        saida.flush();
+    }
+
+    private void escreverCampo(String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor.indexOf(SEPARADOR) < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            saida.write(valor);
+            return;
+        }
+        saida.write('"');
+        saida.write(valor.replace("\"", "\"\""));
+        saida.write('"');
+    }
+}
@@ -0,0 +1,93 @@
+package com.controle.service;
+
+import com.controle.model.TipoCategoria;
+import com.controle.model.Transacao;
+import com.controle.util.Dinheiro;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+// Extrato OFX 2.2 (XML) de uma conta; a lista de lançamentos é escrita à medida que as transações chegam
+public class EscritorOfx implements EscritorTransacoes {
+
+    private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int TAMANHO_MAXIMO_NOME = 32;
+
+    private final Writer saida;
+    private final String contaId;
+    private final LocalDate inicio;
+    private final LocalDate fim;
+    private final long saldoConta;
+
+    // Um extrato OFX é sempre de uma única conta; saldoConta é o saldo atual dela
+    public EscritorOfx(Writer saida, String contaId, LocalDate inicio, LocalDate fim, long saldoConta) {
+        this.saida = saida;
+        this.contaId = contaId;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.saldoConta = saldoConta;
+    }
+
+    @Override
+    public void iniciar() throws IOException {
+        String hoje = LocalDate.now().format(DATA_OFX);
+        saida.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+        saida.write("<?OFX OFXHEADER=\"200\" VERSION=\"220\" SECURITY=\"NONE\" OLDFILEUID=\"NONE\" NEWFILEUID=\"NONE\"?>\n");
+        saida.write("<OFX>\n");
+        saida.write("<SIGNONMSGSRSV1><SONRS><STATUS><CODE>0</CODE><SEVERITY>INFO</SEVERITY></STATUS>");
+        saida.write("<DTSERVER>" + hoje + "</DTSERVER><LANGUAGE>POR</LANGUAGE></SONRS></SIGNONMSGSRSV1>\n");
+        saida.write("<BANKMSGSRSV1><STMTTRNRS><TRNUID>" + hoje + "</TRNUID>");
+        saida.write("<STATUS><CODE>0</CODE><SEVERITY>INFO</SEVERITY></STATUS>\n");
+        saida.write("<STMTRS><CURDEF>BRL</CURDEF>\n");
+        saida.write("<BANKACCTFROM><BANKID>0000</BANKID><ACCTID>" + escapar(contaId) + "</ACCTID><ACCTTYPE>CHECKING</ACCTTYPE></BANKACCTFROM>\n");
+        saida.write("<BANKTRANLIST><DTSTART>" + inicio.format(DATA_OFX) + "</DTSTART><DTEND>" + fim.format(DATA_OFX) + "</DTEND>\n");
+    }
+
+    @Override
+    public void escrever(Transacao transacao) throws IOException {
+        boolean despesa = transacao.getTipo() == TipoCategoria.DESPESA;
+        long valor = despesa ? -transacao.getValorCentavos() : transacao.getValorCentavos();
+
+        saida.write("<STMTTRN><TRNTYPE>");
+        saida.write(despesa ? "DEBIT" : "CREDIT");
+        saida.write("</TRNTYPE><DTPOSTED>");
+        saida.write(transacao.getData().format(DATA_OFX));
+        saida.write("</DTPOSTED><TRNAMT>");
+        saida.write(Dinheiro.paraTexto(valor));
+        saida.write("</TRNAMT><FITID>");
+        saida.write(Integer.toString(transacao.getId()));
+        saida.write("</FITID><NAME>");
+        saida.write(escapar(nome(transacao.getDescricao())));
+        saida.write("</NAME>");
+        if (transacao.getCategoria() != null) {
+            saida.write("<MEMO>");
+            saida.write(escapar(transacao.getCategoria().getNome()));
+            saida.write("</MEMO>");
+        }
+        saida.write("</STMTTRN>\n");
+    }
+
+    @Override
+    public void finalizar() throws IOException {
+        saida.write("</BANKTRANLIST>\n");
+        saida.write("<LEDGERBAL><BALAMT>" + Dinheiro.paraTexto(saldoConta) + "</BALAMT><DTASOF>" + LocalDate.now().format(DATA_OFX) + "</DTASOF></LEDGERBAL>\n");
+        saida.write("</STMTRS></STMTTRNRS></BANKMSGSRSV1>\n");
+        saida.write("</OFX>\n");
+        saida.flush();
+    }
+
+    private String nome(String descricao) {
+        if (descricao == null) {
+            return "";
+        }
+        return descricao.length() > TAMANHO_MAXIMO_NOME ? descricao.substring(0, TAMANHO_MAXIMO_NOME) : descricao;
+    }
+
+    private String escapar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return texto.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
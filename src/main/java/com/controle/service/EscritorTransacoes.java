@@ -0,0 +1,14 @@
+package com.controle.service;
+
+import com.controle.model.Transacao;
+import java.io.IOException;
+
+// Formato de saída de uma exportação: recebe as transações uma a uma e fecha o arquivo no final
+public interface EscritorTransacoes {
+
+    void iniciar() throws IOException;
+
+    void escrever(Transacao transacao) throws IOException;
+
+    void finalizar() throws IOException;
+}
@@ -2,59 +2,118 @@ package com.controle.service;
 
 import com.controle.dao.*;
 import com.controle.model.*;
+import com.controle.util.CancelamentoConsulta;
 import com.controle.util.DatabaseConnection;
+import com.controle.util.Dinheiro;
+import com.controle.util.TokenizadorBusca;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjLongConsumer;
 
 public class GastoPessoalService {
 
+    private static final CacheReferencias cache = new CacheReferencias();
+    // Opcional (relatorios.armazemColunar=true): painel e relatórios calculados em memória
+    private static final ArmazemColunarTransacoes armazem =
+            Boolean.parseBoolean(DatabaseConnection.getProperty("relatorios.armazemColunar", "false").trim())
+                    ? new ArmazemColunarTransacoes() : null;
+    private static final String TAREFA_RECORRENCIAS = "transacoes_recorrentes";
+    private static final int TAMANHO_BUFFER_EXPORTACAO = 64 * 1024;
+    private static final int PASSO_PROGRESSO_EXPORTACAO = 1000;
+
     private final CategoriaDAO categoriaDAO;
     private final TransacaoDAO transacaoDAO;
     private final TransacaoRecorrenteDAO transacaoRecorrenteDAO;
     private final OrcamentoDAO orcamentoDAO;
     private final ContaDAO contaDAO;
+    private final SaldoContaDAO saldoContaDAO;
+    private final ExecucaoTarefaDAO execucaoTarefaDAO;
+    private final GastoCategoriaMesDAO gastoCategoriaMesDAO;
+    private final IndiceBuscaDAO indiceBuscaDAO;
 
     public GastoPessoalService() {
         this.categoriaDAO = new CategoriaDAO();
         this.contaDAO = new ContaDAO();
-        this.orcamentoDAO = new OrcamentoDAO(this.categoriaDAO);
-        this.transacaoDAO = new TransacaoDAO(this.categoriaDAO, this.contaDAO);
-        this.transacaoRecorrenteDAO = new TransacaoRecorrenteDAO(this.categoriaDAO, this.contaDAO);
+        this.orcamentoDAO = new OrcamentoDAO();
+        this.saldoContaDAO = new SaldoContaDAO();
+        this.gastoCategoriaMesDAO = new GastoCategoriaMesDAO();
+        this.indiceBuscaDAO = new IndiceBuscaDAO();
+        this.transacaoDAO = new TransacaoDAO(this.saldoContaDAO, this.gastoCategoriaMesDAO, this.indiceBuscaDAO);
+        this.transacaoRecorrenteDAO = new TransacaoRecorrenteDAO(this.indiceBuscaDAO);
+        this.execucaoTarefaDAO = new ExecucaoTarefaDAO();
     }
 
     public Categoria adicionarCategoria(String nome, TipoCategoria tipo) {
         if (nome == null || nome.trim().isEmpty()) { throw new IllegalArgumentException("O nome da categoria não pode ser vazio."); }
         if (tipo == null) { throw new IllegalArgumentException("O tipo da categoria não pode ser nulo."); }
 
-        return executeWrite(conn -> {
-            if (categoriaDAO.findByNome(nome.trim(), conn) != null) {
+        Categoria novaCategoria = executeWrite(conn -> {
+            if (buscarCategoriaPorNome(nome.trim(), conn) != null) {
                 throw new IllegalArgumentException("Categoria com o nome '" + nome + "' já existe.");
             }
-            Categoria novaCategoria = new Categoria(nome.trim(), tipo);
-            categoriaDAO.save(novaCategoria, conn);
-            return novaCategoria;
+            Categoria categoria = new Categoria(nome.trim(), tipo);
+            categoriaDAO.save(categoria, conn);
+            return categoria;
         });
+        cache.registrar(novaCategoria);
+        atualizarArmazem(a -> a.registrarCategoria(novaCategoria));
+        return novaCategoria;
     }
 
     public Categoria buscarCategoriaPorId(int id) {
-        return executeRead(conn -> categoriaDAO.findById(id, conn));
+        return executeRead(conn -> cache.categoriaPorId(id, () -> categoriaDAO.findById(id, conn)));
     }
 
     public Categoria buscarCategoriaPorNome(String nome) {
         if (nome == null || nome.trim().isEmpty()) { return null; }
-        return executeRead(conn -> categoriaDAO.findByNome(nome.trim(), conn));
+        return executeRead(conn -> buscarCategoriaPorNome(nome.trim(), conn));
+    }
+
+    private Categoria buscarCategoriaPorNome(String nome, Connection conn) {
+        return cache.categoriaPorNome(nome, () -> categoriaDAO.findByNome(nome, conn));
+    }
+
+    private Conta buscarContaPorNome(String nome, Connection conn) {
+        return cache.contaPorNome(nome, () -> contaDAO.findByNome(nome, conn));
+    }
+
+    private Conta buscarContaPorId(int id, Connection conn) {
+        return cache.contaPorId(id, () -> contaDAO.findById(id, conn));
     }
 
     public List<Categoria> listarTodasCategorias() {
-        return executeRead(categoriaDAO::findAll);
+        List<Categoria> categorias = executeRead(categoriaDAO::findAll);
+        categorias.forEach(cache::registrar);
+        return categorias;
     }
 
     public List<Categoria> listarCategoriasPorTermo(String termoBusca) {
-        return executeRead(conn -> {
+        return listarCategoriasPorTermo(termoBusca, null);
+    }
+
+    public List<Categoria> listarCategoriasPorTermo(String termoBusca, CancelamentoConsulta cancelamento) {
+        return executeRead(cancelamento, conn -> {
             if (termoBusca == null || termoBusca.trim().isEmpty()) {
                 return categoriaDAO.findAll(conn);
             }
@@ -66,46 +125,53 @@ public class GastoPessoalService {
         if (categoria == null || categoria.getId() <= 0) { throw new IllegalArgumentException("Categoria inválida para atualização."); }
 
         executeWrite(conn -> {
-            Categoria existente = categoriaDAO.findByNome(categoria.getNome(), conn);
+            Categoria existente = buscarCategoriaPorNome(categoria.getNome(), conn);
             if (existente != null && existente.getId() != categoria.getId()) {
                 throw new IllegalArgumentException("Outra categoria já existe com o nome '" + categoria.getNome() + "'.");
             }
             categoriaDAO.update(categoria, conn);
             return null;
         });
+        cache.registrar(categoria);
+        atualizarArmazem(a -> a.registrarCategoria(categoria));
     }
 
     public void excluirCategoria(int id) {
         executeWrite(conn -> {
+            indiceBuscaDAO.removerRecorrenciasDaCategoria(id, conn);
             categoriaDAO.delete(id, conn);
             return null;
         });
+        cache.removerCategoria(id);
+        atualizarArmazem(a -> a.removerCategoria(id));
     }
 
-    public Transacao adicionarTransacao(String descricao, double valor, LocalDate data, TipoCategoria tipo, String categoriaNome, String contaNome) {
+    public Transacao adicionarTransacao(String descricao, long valorCentavos, LocalDate data, TipoCategoria tipo, String categoriaNome, String contaNome) {
         if (descricao == null || descricao.trim().isEmpty()) { throw new IllegalArgumentException("A descricao da transação não pode ser vazia."); }
-        if (valor <= 0) { throw new IllegalArgumentException("O valor da transação deve ser positivo."); }
+        if (valorCentavos <= 0) { throw new IllegalArgumentException("O valor da transação deve ser positivo."); }
         if (data == null || data.isAfter(LocalDate.now())) { throw new IllegalArgumentException("A data da transação não pode ser nula ou futura."); }
         if (tipo == null) { throw new IllegalArgumentException("O tipo da transação não pode ser nulo."); }
         if (contaNome == null || contaNome.trim().isEmpty()) { throw new IllegalArgumentException("A conta é obrigatória para a transação."); }
 
-        return executeWrite(conn -> {
+        Transacao transacao = executeWrite(conn -> {
             Categoria categoria = null;
             if (categoriaNome != null && !categoriaNome.trim().isEmpty()) {
-                categoria = categoriaDAO.findByNome(categoriaNome.trim(), conn);
+                categoria = buscarCategoriaPorNome(categoriaNome.trim(), conn);
                 if (categoria == null) { throw new IllegalArgumentException("Categoria '" + categoriaNome + "' não encontrada. Crie-a primeiro."); }
                 if (categoria.getTipo() != tipo) { throw new IllegalArgumentException("O tipo da transação (" + tipo + ") não corresponde ao tipo da categoria '" + categoriaNome + "' (" + categoria.getTipo() + ")."); }
             }
 
-            Conta conta = contaDAO.findByNome(contaNome.trim(), conn);
+            Conta conta = buscarContaPorNome(contaNome.trim(), conn);
             if (conta == null) {
                 throw new IllegalArgumentException("Conta '" + contaNome + "' não encontrada.");
             }
 
-            Transacao novaTransacao = new Transacao(descricao.trim(), valor, data, tipo, categoria, conta);
+            Transacao novaTransacao = new Transacao(descricao.trim(), valorCentavos, data, tipo, categoria, conta);
             transacaoDAO.save(novaTransacao, conn);
             return novaTransacao;
         });
+        atualizarArmazem(a -> a.registrar(transacao));
+        return transacao;
     }
 
     public Transacao buscarTransacaoPorId(int id) {
@@ -116,34 +182,47 @@ public class GastoPessoalService {
         return executeRead(transacaoDAO::findAll);
     }
 
+    // Busca por prefixo de palavra, sem diferenciar acentos e maiúsculas: "merc ago" encontra "Mercado - Agosto"
     public List<Transacao> listarTransacoesPorTermo(String termoBusca) {
+        List<String> termos = TokenizadorBusca.termos(termoBusca);
         return executeRead(conn -> {
-            if (termoBusca == null || termoBusca.trim().isEmpty()) {
+            if (termos.isEmpty()) {
                 return transacaoDAO.findAll(conn);
             }
-            return transacaoDAO.findAllByDescriptionLike(termoBusca.trim(), conn);
+            return transacaoDAO.findAllByTermos(termos, conn);
         });
     }
 
+    public List<Transacao> listarTransacoesPagina(String termoBusca, Transacao ultimaExibida, int tamanhoPagina) {
+        return listarTransacoesPagina(termoBusca, ultimaExibida, tamanhoPagina, null);
+    }
+
+    public List<Transacao> listarTransacoesPagina(String termoBusca, Transacao ultimaExibida, int tamanhoPagina,
+                                                  CancelamentoConsulta cancelamento) {
+        if (tamanhoPagina <= 0) { throw new IllegalArgumentException("O tamanho da página deve ser positivo."); }
+        List<String> termos = TokenizadorBusca.termos(termoBusca);
+        return executeRead(cancelamento, conn -> transacaoDAO.findPagina(termos, ultimaExibida, tamanhoPagina, conn));
+    }
+
     public List<Transacao> listarTransacoesPorConta(int contaId) {
         return executeRead(conn -> transacaoDAO.findByContaId(contaId, conn));
     }
 
     public void atualizarTransacao(Transacao transacao, String novaCategoriaNome, String novaContaNome) {
         if (transacao == null || transacao.getId() <= 0) { throw new IllegalArgumentException("Transação inválida para atualização."); }
-        if (transacao.getValor() <= 0) { throw new IllegalArgumentException("O valor da transação deve ser positivo."); }
+        if (transacao.getValorCentavos() <= 0) { throw new IllegalArgumentException("O valor da transação deve ser positivo."); }
         if (novaContaNome == null || novaContaNome.trim().isEmpty()) { throw new IllegalArgumentException("A conta é obrigatória para a transação."); }
 
         executeWrite(conn -> {
             Categoria categoriaAssociada = null;
             if (novaCategoriaNome != null && !novaCategoriaNome.trim().isEmpty()) {
-                categoriaAssociada = categoriaDAO.findByNome(novaCategoriaNome.trim(), conn);
+                categoriaAssociada = buscarCategoriaPorNome(novaCategoriaNome.trim(), conn);
                 if (categoriaAssociada == null) { throw new IllegalArgumentException("Categoria '" + novaCategoriaNome + "' não encontrada."); }
                 if (categoriaAssociada.getTipo() != transacao.getTipo()) { throw new IllegalArgumentException("O tipo da transação não corresponde ao tipo da categoria."); }
             }
             transacao.setCategoria(categoriaAssociada);
 
-            Conta contaAssociada = contaDAO.findByNome(novaContaNome.trim(), conn);
+            Conta contaAssociada = buscarContaPorNome(novaContaNome.trim(), conn);
             if (contaAssociada == null) {
                 throw new IllegalArgumentException("Conta '" + novaContaNome + "' não encontrada.");
             }
@@ -152,6 +231,37 @@ public class GastoPessoalService {
             transacaoDAO.update(transacao, conn);
             return null;
         });
+        atualizarArmazem(a -> a.atualizar(transacao));
+    }
+
+    // Carga de histórico: as transações já devem vir com categoria e conta resolvidas.
+    // Cada lote de db.batch.chunkSize transações é confirmado separadamente.
+    public List<Transacao> adicionarTransacoes(List<Transacao> transacoes) {
+        if (transacoes == null) { throw new IllegalArgumentException("A lista de transações não pode ser nula."); }
+        transacoes.forEach(this::validarTransacaoEmLote);
+        executeWriteEmLotesNoArmazem(transacoes, transacaoDAO::saveAll, ArmazemColunarTransacoes::registrarTodas);
+        return transacoes;
+    }
+
+    public void atualizarTransacoes(List<Transacao> transacoes) {
+        if (transacoes == null) { throw new IllegalArgumentException("A lista de transações não pode ser nula."); }
+        for (Transacao transacao : transacoes) {
+            if (transacao == null || transacao.getId() <= 0) { throw new IllegalArgumentException("Transação inválida para atualização."); }
+            validarTransacaoEmLote(transacao);
+        }
+        executeWriteEmLotesNoArmazem(transacoes, transacaoDAO::updateAll, ArmazemColunarTransacoes::atualizarTodas);
+    }
+
+    private void validarTransacaoEmLote(Transacao transacao) {
+        if (transacao == null) { throw new IllegalArgumentException("A transação não pode ser nula."); }
+        if (transacao.getDescricao() == null || transacao.getDescricao().trim().isEmpty()) { throw new IllegalArgumentException("A descricao da transação não pode ser vazia."); }
+        if (transacao.getValorCentavos() <= 0) { throw new IllegalArgumentException("O valor da transação deve ser positivo."); }
+        if (transacao.getData() == null) { throw new IllegalArgumentException("A data da transação não pode ser nula."); }
+        if (transacao.getTipo() == null) { throw new IllegalArgumentException("O tipo da transação não pode ser nulo."); }
+        if (transacao.getConta() == null) { throw new IllegalArgumentException("A conta é obrigatória para a transação."); }
+        if (transacao.getCategoria() != null && transacao.getCategoria().getTipo() != transacao.getTipo()) {
+            throw new IllegalArgumentException("O tipo da transação '" + transacao.getDescricao() + "' não corresponde ao tipo da categoria.");
+        }
     }
 
     public void excluirTransacao(int id) {
@@ -159,111 +269,104 @@ public class GastoPessoalService {
             transacaoDAO.delete(id, conn);
             return null;
         });
+        atualizarArmazem(a -> a.remover(id));
     }
 
-    private List<Transacao> getTransacoesPeriodo(LocalDate inicio, LocalDate fim, Connection conn) {
-        return transacaoDAO.findAll(conn).stream()
-                .filter(t -> !t.getData().isBefore(inicio) && !t.getData().isAfter(fim))
-                .collect(Collectors.toList());
+    public TotaisPeriodo calcularTotaisPeriodo(LocalDate inicio, LocalDate fim) {
+        ArmazemColunarTransacoes colunar = armazemCarregado();
+        if (colunar != null) {
+            return colunar.totais(inicio, fim);
+        }
+        return executeRead(conn -> transacaoDAO.sumByTipoBetween(inicio, fim, conn));
     }
 
-    public double calcularBalancoTotal(LocalDate inicio, LocalDate fim) {
-        return executeRead(conn -> {
-            List<Transacao> transacoesNoPeriodo = getTransacoesPeriodo(inicio, fim, conn);
-            double totalReceitas = transacoesNoPeriodo.stream()
-                    .filter(t -> t.getTipo() == TipoCategoria.RECEITA)
-                    .mapToDouble(Transacao::getValor)
-                    .sum();
-            double totalDespesas = transacoesNoPeriodo.stream()
-                    .filter(t -> t.getTipo() == TipoCategoria.DESPESA)
-                    .mapToDouble(Transacao::getValor)
-                    .sum();
-            return totalReceitas - totalDespesas;
-        });
+    public long calcularBalancoTotal(LocalDate inicio, LocalDate fim) {
+        return calcularTotaisPeriodo(inicio, fim).getBalanco();
     }
 
-    public double calcularTotalReceitas(LocalDate inicio, LocalDate fim) {
-        return executeRead(conn -> {
-            List<Transacao> transacoesNoPeriodo = getTransacoesPeriodo(inicio, fim, conn);
-            return transacoesNoPeriodo.stream()
-                    .filter(t -> t.getTipo() == TipoCategoria.RECEITA && t.getCategoria() != null)
-                    .mapToDouble(Transacao::getValor)
-                    .sum();
-        });
+    public long calcularTotalReceitas(LocalDate inicio, LocalDate fim) {
+        return calcularTotaisPeriodo(inicio, fim).getReceitasCategorizadas();
     }
 
-    public double calcularTotalDespesas(LocalDate inicio, LocalDate fim) {
-        return executeRead(conn -> {
-            List<Transacao> transacoesNoPeriodo = getTransacoesPeriodo(inicio, fim, conn);
-            return transacoesNoPeriodo.stream()
-                    .filter(t -> t.getTipo() == TipoCategoria.DESPESA && t.getCategoria() != null)
-                    .mapToDouble(Transacao::getValor)
-                    .sum();
-        });
+    public long calcularTotalDespesas(LocalDate inicio, LocalDate fim) {
+        return calcularTotaisPeriodo(inicio, fim).getDespesasCategorizadas();
     }
 
-    public Map<String, Double> calcularDespesasPorCategoria(LocalDate inicio, LocalDate fim) {
-        return executeRead(conn -> {
-            List<Transacao> transacoesNoPeriodo = getTransacoesPeriodo(inicio, fim, conn);
-            return transacoesNoPeriodo.stream()
-                    .filter(t -> t.getTipo() == TipoCategoria.DESPESA && t.getCategoria() != null)
-                    .collect(Collectors.groupingBy(
-                            t -> t.getCategoria().getNome(),
-                            Collectors.summingDouble(Transacao::getValor)
-                    ));
-        });
+    public Map<String, Long> calcularDespesasPorCategoria(LocalDate inicio, LocalDate fim) {
+        ArmazemColunarTransacoes colunar = armazemCarregado();
+        if (colunar != null) {
+            return colunar.despesasPorCategoria(inicio, fim);
+        }
+        return executeRead(conn -> transacaoDAO.sumDespesasByCategoriaBetween(inicio, fim, conn));
     }
 
-    public void processarTransacoesRecorrentes() {
+    // Lança todas as ocorrências vencidas desde o último processamento de cada regra (inclusive meses
+    // em que o aplicativo não foi aberto) numa única transação. A chave (recorrencia_id, data_ocorrencia)
+    // torna a operação idempotente: repetir ou executar em paralelo não duplica lançamentos.
+    public int processarTransacoesRecorrentes() {
         LocalDate hoje = LocalDate.now();
+        int lancadas = executeWrite(conn -> lancarTransacoesRecorrentes(hoje, conn));
+        invalidarArmazemSe(lancadas > 0);
+        return lancadas;
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            List<TransacaoRecorrente> recorrentesAtivas = transacaoRecorrenteDAO.findAllAtivas(hoje, conn);
-            System.out.println("PROCESSANDO TRANSAÇÕES RECORRENTES: " + recorrentesAtivas.size() + " ativas encontradas.");
+    // Execução de inicialização: no máximo uma vez por dia, controlada pelo marcador persistido.
+    // Retorna -1 quando o processamento do dia já tinha sido feito.
+    public int processarTransacoesRecorrentesDoDia() {
+        LocalDate hoje = LocalDate.now();
+        int lancadas = executeWrite(conn -> {
+            LocalDateTime ultimaExecucao = execucaoTarefaDAO.findUltimaExecucao(TAREFA_RECORRENCIAS, conn);
+            if (ultimaExecucao != null && !ultimaExecucao.toLocalDate().isBefore(hoje)) {
+                return -1;
+            }
+            int lancadasHoje = lancarTransacoesRecorrentes(hoje, conn);
+            execucaoTarefaDAO.registrar(TAREFA_RECORRENCIAS, LocalDateTime.now(), conn);
+            return lancadasHoje;
+        });
+        invalidarArmazemSe(lancadas > 0);
+        return lancadas;
+    }
 
-            for (TransacaoRecorrente tr : recorrentesAtivas) {
-                conn.setAutoCommit(false);
-                try {
-                    LocalDate dataLancamento;
-                    try { dataLancamento = LocalDate.of(hoje.getYear(), hoje.getMonth(), tr.getDiaDoMes()); }
-                    catch (Exception e) { dataLancamento = hoje.withDayOfMonth(hoje.lengthOfMonth()); }
-
-                    boolean ehHoraDeLancar = !hoje.isBefore(dataLancamento);
-                    LocalDate ultimoProcessamento = tr.getDataUltimoProcessamento();
-                    boolean jaProcessadoEsteMes = ultimoProcessamento != null &&
-                            ultimoProcessamento.getYear() == hoje.getYear() &&
-                            ultimoProcessamento.getMonth() == hoje.getMonth();
-                    boolean antesDoInicio = dataLancamento.isBefore(tr.getDataInicio());
-
-                    if (ehHoraDeLancar && !jaProcessadoEsteMes && !antesDoInicio) {
-                        System.out.println("LANÇANDO: " + tr.getDescricao());
-
-                        Categoria categoria = tr.getCategoria();
-                        Conta conta = tr.getConta();
-                        if (categoria.getTipo() != tr.getTipo()) {
-                            throw new IllegalArgumentException("Tipo da transação e da categoria não batem.");
-                        }
-
-                        Transacao novaTransacao = new Transacao(
-                                tr.getDescricao(), tr.getValor(), dataLancamento,
-                                tr.getTipo(), categoria, conta
-                        );
-                        transacaoDAO.save(novaTransacao, conn);
-                        tr.setDataUltimoProcessamento(hoje);
-                        transacaoRecorrenteDAO.update(tr, conn);
-                        conn.commit();
-                    } else {
-                        conn.rollback();
-                    }
-                } catch (Exception e) {
-                    conn.rollback();
-                    System.err.println("Erro ao processar transação recorrente ID " + tr.getId() + ": " + e.getMessage());
-                }
+    private int lancarTransacoesRecorrentes(LocalDate hoje, Connection conn) {
+        List<TransacaoRecorrente> pendentes = transacaoRecorrenteDAO.findPendentes(hoje, conn);
+        Map<TransacaoRecorrente, List<LocalDate>> ocorrencias = new LinkedHashMap<>();
+        List<Integer> processadas = new ArrayList<>();
+
+        for (TransacaoRecorrente tr : pendentes) {
+            if (tr.getCategoria() == null || tr.getConta() == null || tr.getCategoria().getTipo() != tr.getTipo()) {
+                System.err.println("Transação recorrente ID " + tr.getId() + " ignorada: categoria ou conta inválida.");
+                continue;
             }
-            conn.setAutoCommit(true);
-        } catch (SQLException e) {
-            throw new RuntimeException("Erro de conexão ao processar transações recorrentes.", e);
+            List<LocalDate> datas = calcularOcorrenciasPendentes(tr, hoje);
+            if (!datas.isEmpty()) {
+                ocorrencias.put(tr, datas);
+            }
+            processadas.add(tr.getId());
         }
+
+        int lancadas = transacaoDAO.saveOcorrencias(ocorrencias, conn);
+        transacaoRecorrenteDAO.updateUltimoProcessamento(processadas, hoje, conn);
+        System.out.println("TRANSAÇÕES RECORRENTES: " + pendentes.size() + " regra(s) pendente(s), " + lancadas + " lançamento(s).");
+        return lancadas;
+    }
+
+    // Uma ocorrência por mês no dia da regra (ou no último dia, em meses mais curtos),
+    // posterior ao último processamento e dentro da vigência da regra
+    private List<LocalDate> calcularOcorrenciasPendentes(TransacaoRecorrente tr, LocalDate hoje) {
+        LocalDate limite = tr.getDataFim() != null && tr.getDataFim().isBefore(hoje) ? tr.getDataFim() : hoje;
+        LocalDate aPartirDe = tr.getDataInicio();
+        if (tr.getDataUltimoProcessamento() != null && tr.getDataUltimoProcessamento().isAfter(aPartirDe.minusDays(1))) {
+            aPartirDe = tr.getDataUltimoProcessamento().plusDays(1);
+        }
+
+        List<LocalDate> datas = new ArrayList<>();
+        for (YearMonth mes = YearMonth.from(aPartirDe); !mes.atDay(1).isAfter(limite); mes = mes.plusMonths(1)) {
+            LocalDate data = mes.atDay(Math.min(tr.getDiaDoMes(), mes.lengthOfMonth()));
+            if (!data.isBefore(aPartirDe) && !data.isAfter(limite)) {
+                datas.add(data);
+            }
+        }
+        return datas;
     }
 
     public TransacaoRecorrente adicionarTransacaoRecorrente(TransacaoRecorrente tr) {
@@ -286,11 +389,16 @@ public class GastoPessoalService {
     }
 
     public List<TransacaoRecorrente> listarTransacoesRecorrentesPorTermo(String termoBusca) {
-        return executeRead(conn -> {
-            if (termoBusca == null || termoBusca.trim().isEmpty()) {
+        return listarTransacoesRecorrentesPorTermo(termoBusca, null);
+    }
+
+    public List<TransacaoRecorrente> listarTransacoesRecorrentesPorTermo(String termoBusca, CancelamentoConsulta cancelamento) {
+        List<String> termos = TokenizadorBusca.termos(termoBusca);
+        return executeRead(cancelamento, conn -> {
+            if (termos.isEmpty()) {
                 return transacaoRecorrenteDAO.findAll(conn);
             }
-            return transacaoRecorrenteDAO.findAllByDescriptionLike(termoBusca.trim(), conn);
+            return transacaoRecorrenteDAO.findAllByTermos(termos, conn);
         });
     }
 
@@ -362,48 +470,70 @@ public class GastoPessoalService {
         return executeRead(conn -> orcamentoDAO.findByCategoriaMesAno(categoria.getId(), mes, ano, conn));
     }
 
-    public double getGastoAtualCategoria(Categoria categoria, int mes, int ano) {
-        if (categoria.getTipo() != TipoCategoria.DESPESA) { return 0.0; }
-        LocalDate inicioMes = LocalDate.of(ano, mes, 1);
-        LocalDate fimMes = inicioMes.withDayOfMonth(inicioMes.lengthOfMonth());
-        Map<String, Double> despesas = calcularDespesasPorCategoria(inicioMes, fimMes);
-        return despesas.getOrDefault(categoria.getNome(), 0.0);
+    public long getGastoAtualCategoria(Categoria categoria, int mes, int ano) {
+        if (categoria.getTipo() != TipoCategoria.DESPESA) { return 0L; }
+        return executeRead(conn -> gastoCategoriaMesDAO.findTotal(categoria.getId(), mes, ano, conn));
+    }
+
+    // Limite, gasto e restante do orçamento da categoria no mês, numa única consulta; null se não houver orçamento
+    public ConsumoOrcamento getConsumoOrcamento(Categoria categoria, int mes, int ano) {
+        if (categoria.getTipo() != TipoCategoria.DESPESA) { return null; }
+        return executeRead(conn -> orcamentoDAO.findConsumoByCategoriaMesAno(categoria.getId(), mes, ano, conn));
+    }
+
+    public List<ConsumoOrcamento> listarConsumoOrcamentos(Integer mes, Integer ano) {
+        return executeRead(conn -> orcamentoDAO.findConsumoByMesAno(mes, ano, conn));
     }
 
     public Conta adicionarConta(Conta conta) {
-        return executeWrite(conn -> {
-            if (contaDAO.findByNome(conta.getNome(), conn) != null) {
+        executeWrite(conn -> {
+            if (buscarContaPorNome(conta.getNome(), conn) != null) {
                 throw new RuntimeException("Já existe uma conta com este nome.");
             }
             contaDAO.save(conta, conn);
             return conta;
         });
+        cache.registrar(conta);
+        atualizarArmazem(a -> a.registrarConta(conta));
+        return conta;
     }
 
     public void atualizarConta(Conta conta) {
         executeWrite(conn -> {
-            Conta existente = contaDAO.findByNome(conta.getNome(), conn);
+            Conta existente = buscarContaPorNome(conta.getNome(), conn);
             if (existente != null && existente.getId() != conta.getId()) {
                 throw new RuntimeException("Já existe outra conta com este nome.");
             }
             contaDAO.update(conta, conn);
             return null;
         });
+        cache.registrar(conta);
+        atualizarArmazem(a -> a.registrarConta(conta));
     }
 
     public void excluirConta(int id) {
         executeWrite(conn -> {
+            gastoCategoriaMesDAO.descontarConta(id, conn);
+            indiceBuscaDAO.removerDaConta(id, conn);
             contaDAO.delete(id, conn);
             return null;
         });
+        cache.removerConta(id);
+        atualizarArmazem(a -> a.removerConta(id));
     }
 
     public List<Conta> listarTodasContas() {
-        return executeRead(contaDAO::findAll);
+        List<Conta> contas = executeRead(contaDAO::findAll);
+        contas.forEach(cache::registrar);
+        return contas;
     }
 
     public List<Conta> listarContasPorTermo(String termo) {
-        return executeRead(conn -> {
+        return listarContasPorTermo(termo, null);
+    }
+
+    public List<Conta> listarContasPorTermo(String termo, CancelamentoConsulta cancelamento) {
+        return executeRead(cancelamento, conn -> {
             if (termo == null || termo.trim().isEmpty()) {
                 return contaDAO.findAll(conn);
             }
@@ -411,125 +541,278 @@ public class GastoPessoalService {
         });
     }
 
-    public void transferirFundos(Conta contaOrigem, Conta contaDestino, double valor, LocalDate data) {
+    public void transferirFundos(Conta contaOrigem, Conta contaDestino, long valorCentavos, LocalDate data) {
         if (contaOrigem == null || contaDestino == null) { throw new IllegalArgumentException("As contas de origem e destino são obrigatórias."); }
         if (contaOrigem.getId() == contaDestino.getId()) { throw new IllegalArgumentException("A conta de origem e destino não podem ser a mesma."); }
-        if (valor <= 0) { throw new IllegalArgumentException("O valor da movimentação deve ser positivo."); }
+        if (valorCentavos <= 0) { throw new IllegalArgumentException("O valor da movimentação deve ser positivo."); }
         if (data == null || data.isAfter(LocalDate.now())) { throw new IllegalArgumentException("A data não pode ser nula ou futura."); }
 
-        executeWrite(conn -> {
+        List<Transacao> movimentacao = executeWrite(conn -> {
             if (contaOrigem.getTipo() != TipoConta.CARTAO_DE_CREDITO) {
-                double saldoAtualOrigem = calcularSaldoAtual(contaOrigem, conn);
-                if (saldoAtualOrigem < valor) {
+                long saldoAtualOrigem = calcularSaldoAtual(contaOrigem, conn);
+                if (saldoAtualOrigem < valorCentavos) {
                     throw new IllegalArgumentException(
-                            String.format("Saldo insuficiente na conta '%s'. Saldo atual: R$ %.2f",
-                                    contaOrigem.getNome(), saldoAtualOrigem)
+                            String.format("Saldo insuficiente na conta '%s'. Saldo atual: %s",
+                                    contaOrigem.getNome(), Dinheiro.formatar(saldoAtualOrigem))
                     );
                 }
             }
 
-            Transacao despesa = new Transacao("Movimentação para " + contaDestino.getNome(), valor, data, TipoCategoria.DESPESA, null, contaOrigem);
+            Transacao despesa = new Transacao("Movimentação para " + contaDestino.getNome(), valorCentavos, data, TipoCategoria.DESPESA, null, contaOrigem);
             transacaoDAO.save(despesa, conn);
 
-            Transacao receita = new Transacao("Movimentação de " + contaOrigem.getNome(), valor, data, TipoCategoria.RECEITA, null, contaDestino);
+            Transacao receita = new Transacao("Movimentação de " + contaOrigem.getNome(), valorCentavos, data, TipoCategoria.RECEITA, null, contaDestino);
             transacaoDAO.save(receita, conn);
 
-            return null;
+            return List.of(despesa, receita);
         });
+        atualizarArmazem(a -> a.registrarTodas(movimentacao));
     }
 
-    public double getSaldoAtual(int contaId) {
+    public long getSaldoAtual(int contaId) {
         return executeRead(conn -> {
-            Conta conta = contaDAO.findById(contaId, conn);
+            Conta conta = buscarContaPorId(contaId, conn);
             if (conta == null) {
                 throw new IllegalArgumentException("Conta não encontrada.");
             }
-            double saldoCalculado = calcularSaldoAtual(conta, conn);
-            if (conta.getTipo() == TipoConta.CARTAO_DE_CREDITO) {
-                return -saldoCalculado;
-            } else {
-                return saldoCalculado;
+            return saldoParaExibicao(conta, calcularSaldoAtual(conta, conn));
+        });
+    }
+
+    public Map<Integer, Long> getSaldosAtuais() {
+        return executeRead(conn -> {
+            Map<Integer, Long> saldosTransacoes = saldoContaDAO.findAll(conn);
+            Map<Integer, Long> saldos = new HashMap<>();
+            for (Conta conta : contaDAO.findAll(conn)) {
+                long saldoCalculado = aplicarSaldoTransacoes(conta, saldosTransacoes.getOrDefault(conta.getId(), 0L));
+                saldos.put(conta.getId(), saldoParaExibicao(conta, saldoCalculado));
             }
+            return saldos;
         });
     }
 
-    private double calcularSaldoAtual(Conta conta, Connection conn) {
+    private long calcularSaldoAtual(Conta conta, Connection conn) {
         if (conta == null) { throw new IllegalArgumentException("Conta não pode ser nula."); }
-        List<Transacao> transacoes = transacaoDAO.findByContaId(conta.getId(), conn);
-        double balancoTransacoes = 0.0;
+        return aplicarSaldoTransacoes(conta, saldoContaDAO.findSaldo(conta.getId(), conn));
+    }
+
+    // Cartão de crédito: o saldo calculado é a fatura em aberto, exibida como valor negativo
+    private long saldoParaExibicao(Conta conta, long saldoCalculado) {
+        return conta.getTipo() == TipoConta.CARTAO_DE_CREDITO ? -saldoCalculado : saldoCalculado;
+    }
+
+    private long aplicarSaldoTransacoes(Conta conta, long saldoTransacoes) {
         if (conta.getTipo() == TipoConta.CARTAO_DE_CREDITO) {
-            for (Transacao t : transacoes) {
-                if (t.getTipo() == TipoCategoria.DESPESA) {
-                    balancoTransacoes += t.getValor();
-                } else if (t.getTipo() == TipoCategoria.RECEITA) {
-                    balancoTransacoes -= t.getValor();
+            return conta.getSaldoInicialCentavos() - saldoTransacoes;
+        }
+        return conta.getSaldoInicialCentavos() + saldoTransacoes;
+    }
+
+    public void reconstruirSaldosContas() {
+        executeWrite(conn -> {
+            saldoContaDAO.rebuild(conn);
+            return null;
+        });
+    }
+
+    public void reconstruirGastosCategorias() {
+        executeWrite(conn -> {
+            gastoCategoriaMesDAO.rebuild(conn);
+            return null;
+        });
+    }
+
+    public Map<LocalDate, Long> getPatrimonioEvolucao(LocalDate inicio, LocalDate fim) {
+        ArmazemColunarTransacoes colunar = armazemCarregado();
+        if (colunar != null) {
+            return calcularPatrimonioEvolucao(inicio, fim, diario -> colunar.percorrerPatrimonioDiario(inicio, fim, diario));
+        }
+        return executeRead(conn -> calcularPatrimonioEvolucao(inicio, fim, conn));
+    }
+
+    public ResumoDashboard gerarDashboard(LocalDate inicio, LocalDate fim) {
+        ArmazemColunarTransacoes colunar = armazemCarregado();
+        if (colunar != null) {
+            return new ResumoDashboard(
+                    inicio,
+                    fim,
+                    colunar.totais(inicio, fim),
+                    colunar.despesasPorCategoria(inicio, fim),
+                    calcularPatrimonioEvolucao(inicio, fim, diario -> colunar.percorrerPatrimonioDiario(inicio, fim, diario))
+            );
+        }
+        return executeRead(conn -> new ResumoDashboard(
+                inicio,
+                fim,
+                transacaoDAO.sumByTipoBetween(inicio, fim, conn),
+                transacaoDAO.sumDespesasByCategoriaBetween(inicio, fim, conn),
+                calcularPatrimonioEvolucao(inicio, fim, conn)
+        ));
+    }
+
+    // contaId nulo considera todas as contas
+    public int contarTransacoesPeriodo(LocalDate inicio, LocalDate fim, Integer contaId) {
+        validarPeriodo(inicio, fim);
+        return executeRead(conn -> transacaoDAO.countBetween(inicio, fim, contaId, conn));
+    }
+
+    // A conexão fica aberta enquanto o consumidor processa as linhas; não chame o serviço de dentro dele
+    public void percorrerTransacoesPeriodo(LocalDate inicio, LocalDate fim, Integer contaId, Consumer<Transacao> consumidor) {
+        validarPeriodo(inicio, fim);
+        executeRead(conn -> {
+            transacaoDAO.streamBetween(inicio, fim, contaId, conn, consumidor);
+            return null;
+        });
+    }
+
+    // Exporta as transações do período direto para o arquivo, sem materializar a lista: o cursor do
+    // banco alimenta o buffer de escrita. O progresso é informado a cada PASSO_PROGRESSO_EXPORTACAO linhas.
+    public int exportarTransacoes(LocalDate inicio, LocalDate fim, Integer contaId, FormatoExportacao formato,
+                                  Path destino, IntConsumer progresso) {
+        validarPeriodo(inicio, fim);
+        if (formato == null) { throw new IllegalArgumentException("O formato de exportação não pode ser nulo."); }
+        if (destino == null) { throw new IllegalArgumentException("O arquivo de destino não pode ser nulo."); }
+        if (formato == FormatoExportacao.OFX && contaId == null) {
+            throw new IllegalArgumentException("A exportação OFX exige uma conta: o extrato representa uma única conta.");
+        }
+
+        return executeRead(conn -> {
+            Long saldoConta = null;
+            if (contaId != null) {
+                Conta conta = buscarContaPorId(contaId, conn);
+                if (conta == null) {
+                    throw new IllegalArgumentException("Conta não encontrada.");
                 }
+                saldoConta = saldoParaExibicao(conta, calcularSaldoAtual(conta, conn));
             }
-        } else {
-            for (Transacao t : transacoes) {
-                if (t.getTipo() == TipoCategoria.RECEITA) {
-                    balancoTransacoes += t.getValor();
-                } else if (t.getTipo() == TipoCategoria.DESPESA) {
-                    balancoTransacoes -= t.getValor();
-                }
+
+            try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Writer saida = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8), TAMANHO_BUFFER_EXPORTACAO)) {
+                EscritorTransacoes escritor = formato == FormatoExportacao.OFX
+                        ? new EscritorOfx(saida, contaId.toString(), inicio, fim, saldoConta)
+                        : new EscritorCsv(saida);
+                int[] exportadas = {0};
+                escritor.iniciar();
+                transacaoDAO.streamBetween(inicio, fim, contaId, conn, transacao -> {
+                    try {
+                        escritor.escrever(transacao);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++exportadas[0] % PASSO_PROGRESSO_EXPORTACAO == 0 && progresso != null) {
+                        progresso.accept(exportadas[0]);
+                    }
+                });
+                escritor.finalizar();
+                return exportadas[0];
+            } catch (IOException | UncheckedIOException e) {
+                throw new RuntimeException("Erro ao gravar o arquivo de exportação: " + e.getMessage(), e);
             }
+        });
+    }
+
+    private void validarPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null) { throw new IllegalArgumentException("O período deve ter data de início e de fim."); }
+        if (inicio.isAfter(fim)) { throw new IllegalArgumentException("A data de início não pode ser posterior à data de fim."); }
+    }
+
+    private Map<LocalDate, Long> calcularPatrimonioEvolucao(LocalDate inicio, LocalDate fim, Connection conn) {
+        return calcularPatrimonioEvolucao(inicio, fim, diario -> transacaoDAO.streamPatrimonioDiario(inicio, fim, conn, diario));
+    }
+
+    private Map<LocalDate, Long> calcularPatrimonioEvolucao(LocalDate inicio, LocalDate fim, Consumer<ObjLongConsumer<LocalDate>> serieEsparsa) {
+        Map<LocalDate, Long> evolucao = new TreeMap<>();
+        percorrerPatrimonioEvolucao(inicio, fim, serieEsparsa, evolucao::put);
+        return evolucao;
+    }
+
+    public void percorrerPatrimonioEvolucao(LocalDate inicio, LocalDate fim, ObjLongConsumer<LocalDate> consumidor) {
+        ArmazemColunarTransacoes colunar = armazemCarregado();
+        if (colunar != null) {
+            percorrerPatrimonioEvolucao(inicio, fim, diario -> colunar.percorrerPatrimonioDiario(inicio, fim, diario), consumidor);
+            return;
         }
-        return conta.getSaldoInicial() + balancoTransacoes;
+        executeRead(conn -> {
+            percorrerPatrimonioEvolucao(inicio, fim, diario -> transacaoDAO.streamPatrimonioDiario(inicio, fim, conn, diario), consumidor);
+            return null;
+        });
     }
 
-    public Map<LocalDate, Double> getPatrimonioEvolucao(LocalDate inicio, LocalDate fim) {
-        return executeRead(conn -> {
-            List<Conta> contas = contaDAO.findAll(conn);
-            double patrimonioBase = contas.stream()
-                    .mapToDouble(Conta::getSaldoInicial)
-                    .sum();
-
-            List<Transacao> todasTransacoes = transacaoDAO.findAll(conn);
-
-            double balancoAteInicio = todasTransacoes.stream()
-                    .filter(t -> t.getData().isBefore(inicio))
-                    .mapToDouble(t -> t.getTipo() == TipoCategoria.RECEITA ? t.getValor() : -t.getValor())
-                    .sum();
-
-            double patrimonioCorrente = patrimonioBase + balancoAteInicio;
-
-            Map<LocalDate, Double> mudancasDiarias = todasTransacoes.stream()
-                    .filter(t -> !t.getData().isBefore(inicio) && !t.getData().isAfter(fim))
-                    .collect(Collectors.groupingBy(
-                            Transacao::getData,
-                            Collectors.summingDouble(t -> t.getTipo() == TipoCategoria.RECEITA ? t.getValor() : -t.getValor())
-                    ));
-
-            Map<LocalDate, Double> evolucao = new java.util.TreeMap<>();
-            LocalDate dataAtual = inicio;
-
-            while (!dataAtual.isAfter(fim)) {
-                patrimonioCorrente += mudancasDiarias.getOrDefault(dataAtual, 0.0);
-                evolucao.put(dataAtual, patrimonioCorrente);
-                dataAtual = dataAtual.plusDays(1);
+    // Completa os dias sem movimentação repetindo o último patrimônio conhecido. A série esparsa
+    // (abertura + dias com movimentação) vem do banco ou do armazém colunar.
+    private void percorrerPatrimonioEvolucao(LocalDate inicio, LocalDate fim, Consumer<ObjLongConsumer<LocalDate>> serieEsparsa,
+                                             ObjLongConsumer<LocalDate> consumidor) {
+        LocalDate[] proximoDia = {inicio};
+        long[] patrimonioCorrente = {0L};
+        serieEsparsa.accept((data, patrimonio) -> {
+            while (proximoDia[0].isBefore(data)) {
+                consumidor.accept(proximoDia[0], patrimonioCorrente[0]);
+                proximoDia[0] = proximoDia[0].plusDays(1);
+            }
+            patrimonioCorrente[0] = patrimonio;
+            if (!data.isBefore(inicio)) {
+                consumidor.accept(data, patrimonio);
+                proximoDia[0] = data.plusDays(1);
             }
-            return evolucao;
         });
+        while (!proximoDia[0].isAfter(fim)) {
+            consumidor.accept(proximoDia[0], patrimonioCorrente[0]);
+            proximoDia[0] = proximoDia[0].plusDays(1);
+        }
     }
 
-    public double getTotalReceitasPorConta(int contaId) {
+    public long getTotalReceitasPorConta(int contaId) {
         return executeRead(conn ->
                 listarTransacoesPorConta(contaId).stream()
                         .filter(t -> t.getTipo() == TipoCategoria.RECEITA)
-                        .mapToDouble(Transacao::getValor)
+                        .mapToLong(Transacao::getValorCentavos)
                         .sum()
         );
     }
 
-    public double getTotalDespesasPorConta(int contaId) {
+    public long getTotalDespesasPorConta(int contaId) {
         return executeRead(conn ->
                 listarTransacoesPorConta(contaId).stream()
                         .filter(t -> t.getTipo() == TipoCategoria.DESPESA)
-                        .mapToDouble(Transacao::getValor)
+                        .mapToLong(Transacao::getValorCentavos)
                         .sum()
         );
     }
 
+    // Compartilhado por todas as instâncias do serviço
+    public static CacheReferencias getCacheReferencias() {
+        return cache;
+    }
+
+    // Com o armazém colunar ligado, garante que ele esteja carregado e o devolve; null quando desligado
+    private ArmazemColunarTransacoes armazemCarregado() {
+        if (armazem == null) {
+            return null;
+        }
+        if (!armazem.isCarregado()) {
+            executeRead(conn -> {
+                if (!armazem.isCarregado()) {
+                    armazem.carregar(conn, transacaoDAO, categoriaDAO, contaDAO);
+                }
+                return null;
+            });
+        }
+        return armazem;
+    }
+
+    // Chamado só depois do commit, para o armazém nunca refletir uma escrita desfeita
+    private void atualizarArmazem(Consumer<ArmazemColunarTransacoes> atualizacao) {
+        if (armazem != null) {
+            atualizacao.accept(armazem);
+        }
+    }
+
+    private void invalidarArmazemSe(boolean condicao) {
+        if (armazem != null && condicao) {
+            armazem.invalidar();
+        }
+    }
+
     // =================================================================================
     // MÉTODOS TEMPLATE (HELPERS PRIVADOS)
     // =================================================================================
@@ -555,6 +838,52 @@ public class GastoPessoalService {
         }
     }
 
+    // Com um cancelamento, a leitura recebe uma conexão que permite abortar no banco a consulta em andamento
+    private <T> T executeRead(CancelamentoConsulta cancelamento, DatabaseReadOperation<T> operation) {
+        if (cancelamento == null) {
+            return executeRead(operation);
+        }
+        return executeRead(conn -> operation.execute(cancelamento.vigiar(conn)));
+    }
+
+    @FunctionalInterface
+    private interface DatabaseBatchOperation<E> {
+        void execute(List<E> lote, Connection conn) throws Exception;
+    }
+
+    // Lotes já confirmados antes de uma falha continuam no banco: nesse caso o armazém é recarregado por inteiro
+    private void executeWriteEmLotesNoArmazem(List<Transacao> transacoes, DatabaseBatchOperation<Transacao> operation,
+                                              BiConsumer<ArmazemColunarTransacoes, List<Transacao>> registro) {
+        try {
+            executeWriteEmLotes(transacoes, operation);
+        } catch (RuntimeException e) {
+            invalidarArmazemSe(true);
+            throw e;
+        }
+        atualizarArmazem(a -> registro.accept(a, transacoes));
+    }
+
+    private <E> void executeWriteEmLotes(List<E> itens, DatabaseBatchOperation<E> operation) {
+        int tamanhoLote = Math.max(1, DatabaseConnection.getIntProperty("db.batch.chunkSize", 1000));
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            for (int inicio = 0; inicio < itens.size(); inicio += tamanhoLote) {
+                List<E> lote = itens.subList(inicio, Math.min(inicio + tamanhoLote, itens.size()));
+                try {
+                    operation.execute(lote, conn);
+                    conn.commit();
+                } catch (Exception e) {
+                    conn.rollback();
+                    System.err.println("Erro no lote iniciado na posição " + inicio + "; lotes anteriores já foram confirmados.");
+                    if (e instanceof RuntimeException) throw (RuntimeException) e;
+                    throw new RuntimeException("Erro na transação: " + e.getMessage(), e);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro de conexão com o banco de dados.", e);
+        }
+    }
+
     private <T> T executeWrite(DatabaseWriteOperation<T> operation) {
         try (Connection conn = DatabaseConnection.getConnection()) {
             conn.setAutoCommit(false);
@@ -0,0 +1,76 @@
+package com.controle.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Interromper a thread não para uma consulta JDBC. A leitura recebe a conexão embrulhada por vigiar(),
+// que guarda os statements criados; cancelar() chama Statement.cancel() neles, o banco aborta o comando
+// em andamento e a conexão volta livre ao pool.
+public class CancelamentoConsulta {
+
+    private final List<Statement> statements = new ArrayList<>();
+    private boolean cancelado = false;
+
+    public Connection vigiar(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(CancelamentoConsulta.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    String nome = metodo.getName();
+                    boolean criaStatement = nome.equals("prepareStatement") || nome.equals("createStatement") || nome.equals("prepareCall");
+                    if (criaStatement && isCancelado()) {
+                        throw new SQLException("Consulta cancelada.");
+                    }
+                    Object resultado;
+                    try {
+                        resultado = metodo.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (criaStatement) {
+                        registrar((Statement) resultado);
+                    }
+                    return resultado;
+                });
+    }
+
+    public synchronized boolean isCancelado() {
+        return cancelado;
+    }
+
+    public void cancelar() {
+        List<Statement> emAndamento;
+        synchronized (this) {
+            if (cancelado) {
+                return;
+            }
+            cancelado = true;
+            emAndamento = new ArrayList<>(statements);
+            statements.clear();
+        }
+        for (Statement statement : emAndamento) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.cancel();
+                }
+            } catch (SQLException e) {
+                // Já fechado ou devolvido ao cache do pool: não há o que cancelar
+            }
+        }
+    }
+
+    private void registrar(Statement statement) throws SQLException {
+        synchronized (this) {
+            if (!cancelado) {
+                statements.add(statement);
+                return;
+            }
+        }
+        // cancelar() chegou enquanto o statement era preparado
+        statement.close();
+        throw new SQLException("Consulta cancelada.");
+    }
+}
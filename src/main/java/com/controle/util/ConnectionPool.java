@@ -0,0 +1,622 @@
+package com.controle.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class ConnectionPool implements ConnectionPoolMXBean {
+
+    public static final String JMX_NAME = "com.controle:type=ConnectionPool";
+
+    private static final long VALIDACAO_APOS_OCIOSIDADE_MS = 5000;
+    // Configurações do statement que o chamador pode alterar; quem as usa não devolve o statement ao cache
+    private static final Set<String> CONFIGURACOES_STATEMENT = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable");
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final MonitorConsultas monitor;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int totalConnections = 0;
+    private int activeConnections = 0;
+    private boolean closed = false;
+
+    private long acquireCount = 0;
+    private long waitCount = 0;
+    private long totalWaitNanos = 0;
+    private long maxWaitNanos = 0;
+    private long timeoutCount = 0;
+    private long createdCount = 0;
+    private long evictedCount = 0;
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long idleTimeoutMillis, long acquireTimeoutMillis, int validationTimeoutSeconds) {
+        this(factory, minSize, maxSize, idleTimeoutMillis, acquireTimeoutMillis, validationTimeoutSeconds, null, 0);
+    }
+
+    // Com um monitor, os statements das conexões emprestadas são cronometrados e o tempo de aquisição é registrado.
+    // statementCacheSize > 0 mantém, por conexão física, os últimos PreparedStatements usados (LRU por texto do SQL).
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize,
+                          long idleTimeoutMillis, long acquireTimeoutMillis, int validationTimeoutSeconds,
+                          MonitorConsultas monitor, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("O tamanho máximo do pool deve ser positivo.");
+        }
+        this.factory = factory;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.monitor = monitor;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ConnectionPool-Evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (idleTimeoutMillis > 0) {
+            long intervalo = Math.max(1000, idleTimeoutMillis / 2);
+            evictor.scheduleWithFixedDelay(this::evictIdle, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        long prazo = inicio + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        boolean esperou = false;
+
+        while (true) {
+            PooledConnection candidata = null;
+            boolean criarNova = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("O pool de conexões foi encerrado.");
+                    }
+                    if (!idle.isEmpty()) {
+                        candidata = idle.pollFirst();
+                        activeConnections++;
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        activeConnections++;
+                        criarNova = true;
+                        break;
+                    }
+                    long restante = prazo - System.nanoTime();
+                    if (restante <= 0) {
+                        timeoutCount++;
+                        throw new SQLException("Tempo esgotado aguardando conexão do pool (" + acquireTimeoutMillis + " ms). " +
+                                "Ativas: " + activeConnections + ", máximo: " + maxSize + ".");
+                    }
+                    esperou = true;
+                    try {
+                        available.awaitNanos(restante);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrompido aguardando conexão do pool.", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (criarNova) {
+                try {
+                    Connection fisica = factory.create();
+                    recordAcquire(inicio, esperou, true);
+                    return wrap(new PooledConnection(fisica));
+                } catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+            }
+
+            if (isValid(candidata)) {
+                recordAcquire(inicio, esperou, false);
+                return wrap(candidata);
+            }
+            discard(candidata);
+        }
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastUsedMillis < VALIDACAO_APOS_OCIOSIDADE_MS) {
+                return true;
+            }
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordAcquire(long inicio, boolean esperou, boolean criada) {
+        long espera = System.nanoTime() - inicio;
+        if (monitor != null) {
+            monitor.registrarAquisicao(espera);
+        }
+        lock.lock();
+        try {
+            acquireCount++;
+            if (criada) {
+                createdCount++;
+            }
+            if (esperou) {
+                waitCount++;
+                totalWaitNanos += espera;
+                maxWaitNanos = Math.max(maxWaitNanos, espera);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Connection wrap(PooledConnection pooled) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler(pooled)
+        );
+    }
+
+    private void release(PooledConnection pooled) {
+        pooled.statements.descartarEmUso();
+        boolean reutilizavel;
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            reutilizavel = !pooled.physical.isClosed();
+        } catch (SQLException e) {
+            System.err.println("Aviso: conexão descartada ao retornar ao pool: " + e.getMessage());
+            reutilizavel = false;
+        }
+
+        if (!reutilizavel) {
+            discard(pooled);
+            return;
+        }
+
+        lock.lock();
+        try {
+            activeConnections--;
+            if (closed) {
+                totalConnections--;
+                closeQuietly(pooled);
+                return;
+            }
+            pooled.lastUsedMillis = System.currentTimeMillis();
+            idle.addFirst(pooled);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        lock.lock();
+        try {
+            totalConnections--;
+            activeConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (pooled != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private void evictIdle() {
+        Deque<PooledConnection> expiradas = new ArrayDeque<>();
+        long agora = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections > minSize) {
+                PooledConnection pooled = it.next();
+                if (agora - pooled.lastUsedMillis >= idleTimeoutMillis) {
+                    it.remove();
+                    totalConnections--;
+                    evictedCount++;
+                    expiradas.add(pooled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        expiradas.forEach(this::closeQuietly);
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Erro ao fechar conexão física do pool: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        Deque<PooledConnection> paraFechar;
+        lock.lock();
+        try {
+            closed = true;
+            paraFechar = new ArrayDeque<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        evictor.shutdownNow();
+        paraFechar.forEach(this::closeQuietly);
+    }
+
+    // Ativas, ociosas e espera por conexão visíveis em tempo de execução (jconsole/VisualVM)
+    public void registerJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(JMX_NAME);
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(this, nome);
+            }
+        } catch (JMException e) {
+            System.err.println("Aviso: não foi possível registrar as estatísticas do pool no JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            return new PoolStats(activeConnections, idle.size(), totalConnections, maxSize,
+                    acquireCount, waitCount, totalWaitNanos, maxWaitNanos, timeoutCount, createdCount, evictedCount,
+                    statementCacheHits.sum(), statementCacheMisses.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements = new StatementCache();
+        private long lastUsedMillis = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+    }
+
+    private static class CachedStatement {
+        private final String chave;
+        private final PreparedStatement physical;
+        private boolean emUso;
+        private boolean descartar;
+
+        private CachedStatement(String chave, PreparedStatement physical) {
+            this.chave = chave;
+            this.physical = physical;
+        }
+    }
+
+    // Usado só pela thread que tem a conexão emprestada, por isso sem sincronização. Fechar a conexão
+    // física fecha os statements dela, então conexões descartadas não precisam limpar o cache.
+    private class StatementCache {
+        private final LinkedHashMap<String, CachedStatement> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+        private PreparedStatement emprestar(Connection physical, Method method, Object[] args) throws Throwable {
+            String chave = args.length == 1 ? (String) args[0] : Arrays.deepToString(args);
+            CachedStatement entrada = entradas.get(chave);
+            if (entrada != null && !entrada.emUso) {
+                statementCacheHits.increment();
+                return emprestar(entrada);
+            }
+            statementCacheMisses.increment();
+            PreparedStatement novo = (PreparedStatement) invokePhysical(physical, method, args);
+            if (entrada != null) {
+                // O mesmo SQL já está aberto nesta conexão (ex.: laço aninhado): este fica fora do cache
+                return novo;
+            }
+            entrada = new CachedStatement(chave, novo);
+            entradas.put(chave, entrada);
+            removerExcedentes();
+            return emprestar(entrada);
+        }
+
+        private PreparedStatement emprestar(CachedStatement entrada) {
+            entrada.emUso = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new CachedStatementHandler(this, entrada)
+            );
+        }
+
+        private void devolver(CachedStatement entrada) {
+            entrada.emUso = false;
+            if (!entrada.descartar) {
+                try {
+                    entrada.physical.clearParameters();
+                    entrada.physical.clearBatch();
+                    removerExcedentes();
+                    return;
+                } catch (SQLException e) {
+                    System.err.println("Aviso: statement descartado ao retornar ao cache: " + e.getMessage());
+                }
+            }
+            remover(entrada);
+        }
+
+        // Statements que o chamador esqueceu abertos não voltam para a próxima locação
+        private void descartarEmUso() {
+            entradas.values().removeIf(entrada -> {
+                if (entrada.emUso) {
+                    entrada.descartar = true;
+                    fecharStatement(entrada);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        private void removerExcedentes() {
+            Iterator<CachedStatement> it = entradas.values().iterator();
+            while (entradas.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement maisAntiga = it.next();
+                if (!maisAntiga.emUso) {
+                    it.remove();
+                    fecharStatement(maisAntiga);
+                }
+            }
+        }
+
+        private void remover(CachedStatement entrada) {
+            if (entradas.get(entrada.chave) == entrada) {
+                entradas.remove(entrada.chave);
+            }
+            fecharStatement(entrada);
+        }
+
+        private void fecharStatement(CachedStatement entrada) {
+            try {
+                entrada.physical.close();
+            } catch (SQLException e) {
+                System.err.println("Erro ao fechar statement do cache: " + e.getMessage());
+            }
+        }
+    }
+
+    // Um empréstimo de statement do cache: close() fecha os ResultSets abertos por ele e devolve o
+    // statement em vez de fechá-lo
+    private static class CachedStatementHandler implements InvocationHandler {
+        private final StatementCache cache;
+        private final CachedStatement entrada;
+        private boolean devolvido = false;
+        // Um statement tem no máximo um resultado aberto de cada vez, mais as chaves geradas
+        private ResultSet resultadoAtual;
+        private ResultSet chavesGeradas;
+
+        private CachedStatementHandler(StatementCache cache, CachedStatement entrada) {
+            this.cache = cache;
+            this.entrada = entrada;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            switch (nome) {
+                case "close":
+                    if (!devolvido) {
+                        devolvido = true;
+                        fecharResultados();
+                        cache.devolver(entrada);
+                    }
+                    return null;
+                case "isClosed":
+                    return devolvido || entrada.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (devolvido) {
+                throw new SQLException("Statement já fechado.");
+            }
+            if (CONFIGURACOES_STATEMENT.contains(nome) || nome.equals("closeOnCompletion")) {
+                entrada.descartar = true;
+            }
+            Object resultado = invokePhysical(entrada.physical, method, args);
+            if (resultado instanceof ResultSet) {
+                if (nome.equals("getGeneratedKeys")) {
+                    chavesGeradas = (ResultSet) resultado;
+                } else {
+                    resultadoAtual = (ResultSet) resultado;
+                }
+            }
+            return resultado;
+        }
+
+        private void fecharResultados() {
+            for (ResultSet resultSet : new ResultSet[]{resultadoAtual, chavesGeradas}) {
+                if (resultSet == null) {
+                    continue;
+                }
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    // O statement vai para remoção se não conseguir liberar o cursor
+                    entrada.descartar = true;
+                }
+            }
+            resultadoAtual = null;
+            chavesGeradas = null;
+        }
+    }
+
+    private static Object invokePhysical(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean released = false;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            switch (nome) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Conexão já devolvida ao pool.");
+            }
+            Object resultado = statementCacheSize > 0 && nome.equals("prepareStatement")
+                    ? pooled.statements.emprestar(pooled.physical, method, args)
+                    : invokePhysical(pooled.physical, method, args);
+            if (monitor != null && (nome.equals("prepareStatement") || nome.equals("createStatement") || nome.equals("prepareCall"))) {
+                return monitor.instrumentar(args, resultado);
+            }
+            return resultado;
+        }
+    }
+
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int maxSize;
+        private final long acquireCount;
+        private final long waitCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+
+        public PoolStats(int active, int idle, int total, int maxSize, long acquireCount, long waitCount,
+                         long totalWaitNanos, long maxWaitNanos, long timeoutCount, long createdCount, long evictedCount,
+                         long statementCacheHits, long statementCacheMisses) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.acquireCount = acquireCount;
+            this.waitCount = waitCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getMaxSize() { return maxSize; }
+        public long getAcquireCount() { return acquireCount; }
+        public long getWaitCount() { return waitCount; }
+        public double getAverageWaitMillis() { return waitCount == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / waitCount; }
+        public double getMaxWaitMillis() { return maxWaitNanos / 1_000_000.0; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public double getStatementCacheHitRate() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total == 0 ? 0.0 : (double) statementCacheHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PoolStats{ativas=%d, ociosas=%d, total=%d/%d, aquisicoes=%d, esperas=%d, " +
+                            "esperaMedia=%.2fms, esperaMax=%.2fms, timeouts=%d, criadas=%d, removidas=%d, " +
+                            "cacheStatements=%d/%d (%.1f%%)}",
+                    active, idle, total, maxSize, acquireCount, waitCount,
+                    getAverageWaitMillis(), getMaxWaitMillis(), timeoutCount, createdCount, evictedCount,
+                    statementCacheHits, statementCacheHits + statementCacheMisses, getStatementCacheHitRate() * 100);
+        }
+    }
+}
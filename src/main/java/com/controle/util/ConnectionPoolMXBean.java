@@ -0,0 +1,6 @@
+package com.controle.util;
+
+public interface ConnectionPoolMXBean {
+
+    ConnectionPool.PoolStats getStats();
+}
@@ -5,12 +5,14 @@ import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.Properties;
 
 public class DatabaseConnection {
     private static final Properties props = new Properties();
+    private static final DialetoSql dialeto;
     private static final String URL;
+    private static final ConnectionPool pool;
+    private static final MonitorConsultas monitor;
 
     static {
         System.out.println("Carregando configurações do banco de dados...");
@@ -22,17 +24,36 @@ public class DatabaseConnection {
             }
 
             props.load(input);
+            // Chaves "db.*" passadas na JVM (-Ddb.arquivo=...) têm precedência sobre o arquivo
+            for (String chave : System.getProperties().stringPropertyNames()) {
+                if (chave.startsWith("db.")) {
+                    props.setProperty(chave, System.getProperty(chave));
+                }
+            }
+
+            dialeto = DialetoSql.configurado(props.getProperty("db.tipo"));
+            URL = dialeto.url(props);
 
-            String serverName = props.getProperty("db.server");
-            String port = props.getProperty("db.port");
-            String databaseName = props.getProperty("db.database");
+            monitor = Boolean.parseBoolean(props.getProperty("db.monitor.ativo", "true").trim())
+                    ? new MonitorConsultas(getLongProperty("db.monitor.consultaLentaMs", 500L))
+                    : null;
+            if (monitor != null) {
+                monitor.registrarJmx();
+            }
 
-            URL = "jdbc:sqlserver://" + serverName + ":" + port + ";" +
-                    "databaseName=" + databaseName + ";" +
-                    "encrypt=false;" +
-                    "trustServerCertificate=true;";
+            pool = new ConnectionPool(
+                    () -> DriverManager.getConnection(URL, props.getProperty("db.user"), props.getProperty("db.password")),
+                    getIntProperty("db.pool.minSize", 1),
+                    getIntProperty("db.pool.maxSize", 10),
+                    getLongProperty("db.pool.idleTimeoutMs", 300_000L),
+                    getLongProperty("db.pool.acquireTimeoutMs", 30_000L),
+                    getIntProperty("db.pool.validationTimeoutSeconds", 5),
+                    monitor,
+                    getIntProperty("db.pool.statementCacheSize", 50)
+            );
+            pool.registerJmx();
 
-            System.out.println("Configurações do banco de dados carregadas com sucesso.");
+            System.out.println("Configurações do banco de dados carregadas com sucesso (" + URL.split(";")[0] + ").");
 
         } catch (IOException ex) {
             System.err.println("ERRO FATAL: Falha ao ler o arquivo 'config.properties'.");
@@ -41,84 +62,60 @@ public class DatabaseConnection {
     }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, props.getProperty("db.user"), props.getProperty("db.password"));
+        return pool.getConnection();
+    }
+
+    public static DialetoSql getDialeto() {
+        return dialeto;
+    }
+
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    // null quando db.monitor.ativo=false
+    public static MonitorConsultas getMonitor() {
+        return monitor;
+    }
+
+    public static void shutdownPool() {
+        pool.shutdown();
+        System.out.println("Pool de conexões encerrado. " + pool.getStats());
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        return props.getProperty(key, defaultValue);
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        String valor = props.getProperty(key);
+        if (valor == null || valor.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Aviso: valor inválido para '" + key + "': " + valor + ". Usando " + defaultValue + ".");
+            return defaultValue;
+        }
+    }
+
+    public static long getLongProperty(String key, long defaultValue) {
+        String valor = props.getProperty(key);
+        if (valor == null || valor.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Aviso: valor inválido para '" + key + "': " + valor + ". Usando " + defaultValue + ".");
+            return defaultValue;
+        }
     }
 
     public static void createTables() throws SQLException {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            String createCategoriasTableSQL = "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='categorias' and xtype='U') " +
-                    "CREATE TABLE categorias (" +
-                    "id INT PRIMARY KEY IDENTITY(1,1), " +
-                    "nome NVARCHAR(255) NOT NULL UNIQUE, " +
-                    "tipo NVARCHAR(50) NOT NULL" +
-                    ");";
-            stmt.execute(createCategoriasTableSQL);
-            System.out.println("Tabela 'categorias' verificada/criada com sucesso.");
-
-            String createContasTableSQL = "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='contas' and xtype='U') " +
-                    "CREATE TABLE contas (" +
-                    "id INT PRIMARY KEY IDENTITY(1,1), " +
-                    "nome NVARCHAR(255) NOT NULL UNIQUE, " +
-                    "saldo_inicial DECIMAL(18, 2) NOT NULL DEFAULT 0, " +
-                    "tipo NVARCHAR(50) NOT NULL" +
-                    ");";
-            stmt.execute(createContasTableSQL);
-            System.out.println("Tabela 'contas' verificada/criada com sucesso.");
-
-            String createTransacoesTableSQL = "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='transacoes' and xtype='U') " +
-                    "CREATE TABLE transacoes (" +
-                    "id INT PRIMARY KEY IDENTITY(1,1), " +
-                    "descricao NVARCHAR(MAX) NOT NULL, " +
-                    "valor DECIMAL(18, 2) NOT NULL, " +
-                    "data DATE NOT NULL, " +
-                    "tipo NVARCHAR(50) NOT NULL, " +
-                    "categoria_id INT, " +
-                    "conta_id INT, " +
-                    "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE SET NULL, " +
-                    "FOREIGN KEY (conta_id) REFERENCES contas(id) ON DELETE CASCADE" +
-                    ");";
-            stmt.execute(createTransacoesTableSQL);
-            System.out.println("Tabela 'transacoes' verificada/criada com sucesso.");
-
-            String createTransacoesRecorrentesSQL = "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='transacoes_recorrentes' and xtype='U') " +
-                    "CREATE TABLE transacoes_recorrentes (" +
-                    "id INT PRIMARY KEY IDENTITY(1,1), " +
-                    "descricao NVARCHAR(MAX) NOT NULL, " +
-                    "valor DECIMAL(18, 2) NOT NULL, " +
-                    "tipo NVARCHAR(50) NOT NULL, " +
-                    "categoria_id INT NOT NULL, " +
-                    "conta_id INT NOT NULL, " +
-                    "dia_do_mes INT NOT NULL, " +
-                    "data_inicio DATE NOT NULL, " +
-                    "data_fim DATE NULL, " +
-                    "data_ultimo_processamento DATE NULL, " +
-                    "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE CASCADE, " +
-                    "FOREIGN KEY (conta_id) REFERENCES contas(id) ON DELETE CASCADE" +
-                    ");";
-            stmt.execute(createTransacoesRecorrentesSQL);
-            System.out.println("Tabela 'transacoes_recorrentes' verificada/criada com sucesso.");
-
-            String createOrcamentosTableSQL = "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='orcamentos' and xtype='U') " +
-                    "CREATE TABLE orcamentos (" +
-                    "id INT PRIMARY KEY IDENTITY(1,1), " +
-                    "categoria_id INT NOT NULL, " +
-                    "valor_limite DECIMAL(18, 2) NOT NULL, " +
-                    "mes INT NOT NULL, " +
-                    "ano INT NOT NULL, " +
-                    "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE CASCADE, " +
-                    "CONSTRAINT UQ_Categoria_Mes_Ano UNIQUE (categoria_id, mes, ano)" +
-                    ");";
-            stmt.execute(createOrcamentosTableSQL);
-            System.out.println("Tabela 'orcamentos' verificada/criada com sucesso.");
-
-        } catch (SQLException e) {
-            if (!e.getMessage().contains("Could not create constraint or index") && !e.getMessage().contains("already exists")) {
-                throw e;
-            } else {
-                System.out.println("Aviso: Tabelas ou constraints já existem, pulando criação.");
-            }
+        try (Connection conn = getConnection()) {
+            SchemaMigrations.migrar(conn);
         }
     }
 
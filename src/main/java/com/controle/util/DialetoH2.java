@@ -0,0 +1,74 @@
+package com.controle.util;
+
+import java.io.File;
+import java.util.Properties;
+
+// Banco embutido em arquivo, no mesmo processo do aplicativo: sem servidor para instalar e sem
+// latência de rede, indicado para uso em um único computador
+public final class DialetoH2 implements DialetoSql {
+
+    public static final DialetoH2 INSTANCIA = new DialetoH2();
+
+    private DialetoH2() {
+    }
+
+    @Override
+    public String url(Properties props) {
+        String arquivo = props.getProperty("db.arquivo", "dados/controle_financeiro");
+        return "jdbc:h2:file:" + new File(arquivo).getAbsolutePath();
+    }
+
+    @Override
+    public String chavePrimariaIdentidade() {
+        return "INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+    }
+
+    @Override
+    public String tipoTextoLongo() {
+        return "CHARACTER VARYING";
+    }
+
+    @Override
+    public String tipoDataHora() {
+        return "TIMESTAMP";
+    }
+
+    @Override
+    public String agora() {
+        return "LOCALTIMESTAMP";
+    }
+
+    @Override
+    public String criarTabelaSeNaoExistir(String tabela, String colunas) {
+        return "CREATE TABLE IF NOT EXISTS " + tabela + " (" + colunas + ");";
+    }
+
+    @Override
+    public String adicionarColunas(String tabela, String... colunas) {
+        return "ALTER TABLE " + tabela + " ADD (" + String.join(", ", colunas) + ");";
+    }
+
+    // O H2 não tem INCLUDE; as colunas incluídas são ignoradas
+    @Override
+    public String criarIndice(String nome, String tabela, String colunas, String colunasIncluidas) {
+        return "CREATE INDEX " + nome + " ON " + tabela + " (" + colunas + ");";
+    }
+
+    // Sem índice filtrado no H2; um índice único comum equivale quando a condição é "coluna IS NOT NULL",
+    // porque NULLs não colidem entre si
+    @Override
+    public String criarIndiceUnicoParcial(String nome, String tabela, String colunas, String condicao) {
+        return "CREATE UNIQUE INDEX " + nome + " ON " + tabela + " (" + colunas + ");";
+    }
+
+    // Embutido e com MVCC: a verificação NOT EXISTS mais o índice único bastam
+    @Override
+    public String dicaTravaAteCommit() {
+        return "";
+    }
+
+    @Override
+    public boolean suportaInsertEmLoteComIds() {
+        return false;
+    }
+}
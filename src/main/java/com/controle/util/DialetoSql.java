@@ -0,0 +1,53 @@
+package com.controle.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+// Diferenças de SQL entre os bancos suportados. Consultas e DMLs comuns ficam no SQL padrão
+// dentro dos DAOs; aqui só entra o que cada banco escreve de um jeito (DDL, dicas de trava,
+// inserção em lote devolvendo ids).
+public interface DialetoSql {
+
+    String url(Properties props);
+
+    // Tipos e trechos de DDL usados pelas migrações
+    String chavePrimariaIdentidade();
+
+    String tipoTextoLongo();
+
+    String tipoDataHora();
+
+    String agora();
+
+    String criarTabelaSeNaoExistir(String tabela, String colunas);
+
+    String adicionarColunas(String tabela, String... colunas);
+
+    String criarIndice(String nome, String tabela, String colunas, String colunasIncluidas);
+
+    // Índice único só para as linhas que atendem a condição (as demais podem repetir a chave)
+    String criarIndiceUnicoParcial(String nome, String tabela, String colunas, String condicao);
+
+    // Trava de leitura mantida até o commit, para "verifica e insere" sem corrida entre transações
+    String dicaTravaAteCommit();
+
+    // true quando o banco devolve, num único comando, os ids de um INSERT de várias linhas na ordem da origem
+    boolean suportaInsertEmLoteComIds();
+
+    static DialetoSql configurado(String tipo) {
+        if (tipo == null || tipo.trim().isEmpty() || "sqlserver".equalsIgnoreCase(tipo.trim())) {
+            return DialetoSqlServer.INSTANCIA;
+        }
+        if ("h2".equalsIgnoreCase(tipo.trim())) {
+            return DialetoH2.INSTANCIA;
+        }
+        throw new IllegalArgumentException("Tipo de banco de dados não suportado: '" + tipo + "'. Use 'sqlserver' ou 'h2'.");
+    }
+
+    // DAOs recebem só a conexão; o dialeto sai da URL dela (também vale para conexões abertas fora do pool)
+    static DialetoSql da(Connection conn) throws SQLException {
+        String url = conn.getMetaData().getURL();
+        return url != null && url.startsWith("jdbc:h2:") ? DialetoH2.INSTANCIA : DialetoSqlServer.INSTANCIA;
+    }
+}
@@ -0,0 +1,71 @@
+package com.controle.util;
+
+import java.util.Properties;
+
+public final class DialetoSqlServer implements DialetoSql {
+
+    public static final DialetoSqlServer INSTANCIA = new DialetoSqlServer();
+
+    private DialetoSqlServer() {
+    }
+
+    @Override
+    public String url(Properties props) {
+        return "jdbc:sqlserver://" + props.getProperty("db.server") + ":" + props.getProperty("db.port") + ";" +
+                "databaseName=" + props.getProperty("db.database") + ";" +
+                "encrypt=false;" +
+                "trustServerCertificate=true;";
+    }
+
+    @Override
+    public String chavePrimariaIdentidade() {
+        return "INT PRIMARY KEY IDENTITY(1,1)";
+    }
+
+    @Override
+    public String tipoTextoLongo() {
+        return "NVARCHAR(MAX)";
+    }
+
+    @Override
+    public String tipoDataHora() {
+        return "DATETIME2";
+    }
+
+    @Override
+    public String agora() {
+        return "SYSDATETIME()";
+    }
+
+    @Override
+    public String criarTabelaSeNaoExistir(String tabela, String colunas) {
+        return "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='" + tabela + "' and xtype='U') " +
+                "CREATE TABLE " + tabela + " (" + colunas + ");";
+    }
+
+    @Override
+    public String adicionarColunas(String tabela, String... colunas) {
+        return "ALTER TABLE " + tabela + " ADD " + String.join(", ", colunas) + ";";
+    }
+
+    @Override
+    public String criarIndice(String nome, String tabela, String colunas, String colunasIncluidas) {
+        return "CREATE INDEX " + nome + " ON " + tabela + " (" + colunas + ")" +
+                (colunasIncluidas != null ? " INCLUDE (" + colunasIncluidas + ")" : "") + ";";
+    }
+
+    @Override
+    public String criarIndiceUnicoParcial(String nome, String tabela, String colunas, String condicao) {
+        return "CREATE UNIQUE INDEX " + nome + " ON " + tabela + " (" + colunas + ") WHERE " + condicao + ";";
+    }
+
+    @Override
+    public String dicaTravaAteCommit() {
+        return " WITH (UPDLOCK, HOLDLOCK)";
+    }
+
+    @Override
+    public boolean suportaInsertEmLoteComIds() {
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.controle.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+// Valores monetários trafegam como long em centavos (mesma escala das colunas DECIMAL(18, 2)).
+// Somas em long são exatas e não alocam; BigDecimal só aparece na fronteira com JDBC e na formatação.
+public final class Dinheiro {
+
+    private static final Locale LOCALE_BR = new Locale("pt", "BR");
+
+    private Dinheiro() {
+    }
+
+    public static long deReais(BigDecimal reais) {
+        return reais.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Aceita "1234.56" ou "1234,56", como os campos de valor das telas
+    public static long parse(String texto) {
+        if (texto == null || texto.trim().isEmpty()) {
+            throw new NumberFormatException("Valor vazio.");
+        }
+        return deReais(new BigDecimal(texto.trim().replace(",", ".")));
+    }
+
+    public static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    // Apenas para gráficos, que trabalham com double
+    public static double paraReais(long centavos) {
+        return centavos / 100.0;
+    }
+
+    public static String formatar(long centavos) {
+        return NumberFormat.getCurrencyInstance(LOCALE_BR).format(paraBigDecimal(centavos));
+    }
+
+    // Formato de edição usado nos campos de texto (ex.: "50.00")
+    public static String paraTexto(long centavos) {
+        return paraBigDecimal(centavos).toPlainString();
+    }
+
+    public static long ler(ResultSet rs, String coluna) throws SQLException {
+        BigDecimal valor = rs.getBigDecimal(coluna);
+        return valor == null ? 0L : deReais(valor);
+    }
+
+    public static long ler(ResultSet rs, int coluna) throws SQLException {
+        BigDecimal valor = rs.getBigDecimal(coluna);
+        return valor == null ? 0L : deReais(valor);
+    }
+
+    public static void bind(PreparedStatement stmt, int indice, long centavos) throws SQLException {
+        stmt.setBigDecimal(indice, paraBigDecimal(centavos));
+    }
+}
@@ -0,0 +1,219 @@
+package com.controle.util;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import java.io.File;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+// Escreve relatórios em PDF linha a linha, abrindo páginas novas conforme o cursor chega ao rodapé.
+// As fontes são criadas uma vez por documento e o conteúdo de cada página vai para um cache em
+// arquivo temporário, então a memória não cresce com o número de linhas. Cabeçalhos de tabela
+// são repetidos no topo de cada página.
+public class EscritorPdfPaginado implements AutoCloseable {
+
+    private static final float MARGEM = 50;
+    private static final float ALTURA_RODAPE = 30;
+    private static final String RETICENCIAS = "...";
+    private static final Pattern QUEBRAS = Pattern.compile("\\s");
+
+    public static final class Coluna {
+        private final float x;
+        private final float largura;
+        private final boolean alinhadaDireita;
+
+        private Coluna(float x, float largura, boolean alinhadaDireita) {
+            this.x = x;
+            this.largura = largura;
+            this.alinhadaDireita = alinhadaDireita;
+        }
+
+        public static Coluna esquerda(float x, float largura) {
+            return new Coluna(x, largura, false);
+        }
+
+        public static Coluna direita(float x, float largura) {
+            return new Coluna(x, largura, true);
+        }
+    }
+
+    private final PDDocument documento;
+    private final PDFont fonteNormal;
+    private final PDFont fonteNegrito;
+    private final PDRectangle formato = PDRectangle.LETTER;
+
+    private PDPageContentStream conteudo;
+    private int paginas;
+    private float y;
+
+    private Coluna[] colunasTabela;
+    private String[] cabecalhoTabela;
+    private float tamanhoTabela;
+
+    public EscritorPdfPaginado() {
+        this.documento = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+        this.fonteNormal = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        this.fonteNegrito = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    }
+
+    public void titulo(String texto, float tamanho) throws IOException {
+        reservar(tamanho + 12);
+        escreverTexto(fonteNegrito, tamanho, MARGEM, y, ajustar(fonteNegrito, tamanho, texto, larguraUtil()));
+        y -= tamanho + 12;
+    }
+
+    public void linha(String texto, float tamanho, boolean negrito) throws IOException {
+        reservar(tamanho + 8);
+        PDFont fonte = negrito ? fonteNegrito : fonteNormal;
+        escreverTexto(fonte, tamanho, MARGEM, y, ajustar(fonte, tamanho, texto, larguraUtil()));
+        y -= tamanho + 8;
+    }
+
+    public void espaco(float altura) {
+        y -= altura;
+    }
+
+    // Enquanto a tabela estiver aberta, toda página nova começa repetindo o cabeçalho
+    public void iniciarTabela(Coluna[] colunas, String[] cabecalho, float tamanho) throws IOException {
+        this.colunasTabela = colunas;
+        this.cabecalhoTabela = cabecalho;
+        this.tamanhoTabela = tamanho;
+        reservar(2 * (tamanho + 5));
+        escreverCabecalhoTabela();
+    }
+
+    public void linhaTabela(String... celulas) throws IOException {
+        if (reservar(tamanhoTabela + 5) && cabecalhoTabela != null) {
+            escreverCabecalhoTabela();
+        }
+        escreverCelulas(fonteNormal, celulas);
+    }
+
+    public void encerrarTabela() {
+        colunasTabela = null;
+        cabecalhoTabela = null;
+        y -= tamanhoTabela;
+    }
+
+    public int getPaginas() {
+        return paginas;
+    }
+
+    public void salvar(File destino) throws IOException {
+        fecharPagina();
+        documento.save(destino);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            fecharPagina();
+        } finally {
+            documento.close();
+        }
+    }
+
+    private void escreverCabecalhoTabela() throws IOException {
+        escreverCelulas(fonteNegrito, cabecalhoTabela);
+    }
+
+    private void escreverCelulas(PDFont fonte, String[] celulas) throws IOException {
+        for (int i = 0; i < colunasTabela.length && i < celulas.length; i++) {
+            Coluna coluna = colunasTabela[i];
+            String texto = ajustar(fonte, tamanhoTabela, celulas[i], coluna.largura);
+            float x = coluna.alinhadaDireita
+                    ? coluna.x + coluna.largura - largura(fonte, tamanhoTabela, texto)
+                    : coluna.x;
+            escreverTexto(fonte, tamanhoTabela, x, y, texto);
+        }
+        y -= tamanhoTabela + 5;
+    }
+
+    // Garante espaço para a próxima linha; retorna true quando precisou abrir uma página nova
+    private boolean reservar(float altura) throws IOException {
+        if (conteudo != null && y - altura >= MARGEM + ALTURA_RODAPE) {
+            return false;
+        }
+        fecharPagina();
+        PDPage pagina = new PDPage(formato);
+        documento.addPage(pagina);
+        conteudo = new PDPageContentStream(documento, pagina);
+        paginas++;
+        y = formato.getHeight() - MARGEM;
+        return true;
+    }
+
+    private void fecharPagina() throws IOException {
+        if (conteudo == null) {
+            return;
+        }
+        try {
+            String rodape = "Página " + paginas;
+            escreverTexto(fonteNormal, 9, formato.getWidth() - MARGEM - largura(fonteNormal, 9, rodape), MARGEM, rodape);
+        } finally {
+            conteudo.close();
+            conteudo = null;
+        }
+    }
+
+    private float larguraUtil() {
+        return formato.getWidth() - 2 * MARGEM;
+    }
+
+    private void escreverTexto(PDFont fonte, float tamanho, float x, float yTexto, String texto) throws IOException {
+        conteudo.beginText();
+        conteudo.setFont(fonte, tamanho);
+        conteudo.newLineAtOffset(x, yTexto);
+        conteudo.showText(texto);
+        conteudo.endText();
+    }
+
+    // Troca caracteres que a fonte padrão não codifica e corta o texto que não cabe na coluna
+    private String ajustar(PDFont fonte, float tamanho, String texto, float larguraMaxima) throws IOException {
+        String seguro = codificavel(fonte, texto == null ? "" : QUEBRAS.matcher(texto).replaceAll(" "));
+        if (largura(fonte, tamanho, seguro) <= larguraMaxima) {
+            return seguro;
+        }
+        float limite = larguraMaxima - largura(fonte, tamanho, RETICENCIAS);
+        float acumulada = 0;
+        int fim = 0;
+        while (fim < seguro.length()) {
+            int proximo = seguro.offsetByCodePoints(fim, 1);
+            acumulada += largura(fonte, tamanho, seguro.substring(fim, proximo));
+            if (acumulada > limite) {
+                break;
+            }
+            fim = proximo;
+        }
+        return seguro.substring(0, fim) + RETICENCIAS;
+    }
+
+    private String codificavel(PDFont fonte, String texto) throws IOException {
+        try {
+            fonte.encode(texto);
+            return texto;
+        } catch (IllegalArgumentException e) {
+            StringBuilder resultado = new StringBuilder(texto.length());
+            texto.codePoints().forEach(caractere -> {
+                String simbolo = new String(Character.toChars(caractere));
+                try {
+                    fonte.encode(simbolo);
+                    resultado.append(simbolo);
+                } catch (IllegalArgumentException | IOException naoSuportado) {
+                    resultado.append('?');
+                }
+            });
+            return resultado.toString();
+        }
+    }
+
+    private float largura(PDFont fonte, float tamanho, String texto) throws IOException {
+        return fonte.getStringWidth(texto) / 1000 * tamanho;
+    }
+}
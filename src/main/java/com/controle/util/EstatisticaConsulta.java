@@ -0,0 +1,49 @@
+package com.controle.util;
+
+import java.beans.ConstructorProperties;
+
+// Fotografia das métricas de uma operação, no formato exposto pelo JMX
+public class EstatisticaConsulta {
+    private final String operacao;
+    private final long execucoes;
+    private final long linhas;
+    private final long erros;
+    private final long lentas;
+    private final double mediaMs;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double maximoMs;
+
+    @ConstructorProperties({"operacao", "execucoes", "linhas", "erros", "lentas", "mediaMs", "p50Ms", "p95Ms", "p99Ms", "maximoMs"})
+    public EstatisticaConsulta(String operacao, long execucoes, long linhas, long erros, long lentas,
+                               double mediaMs, double p50Ms, double p95Ms, double p99Ms, double maximoMs) {
+        this.operacao = operacao;
+        this.execucoes = execucoes;
+        this.linhas = linhas;
+        this.erros = erros;
+        this.lentas = lentas;
+        this.mediaMs = mediaMs;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.maximoMs = maximoMs;
+    }
+
+    public String getOperacao() { return operacao; }
+    public long getExecucoes() { return execucoes; }
+    public long getLinhas() { return linhas; }
+    public long getErros() { return erros; }
+    public long getLentas() { return lentas; }
+    public double getMediaMs() { return mediaMs; }
+    public double getP50Ms() { return p50Ms; }
+    public double getP95Ms() { return p95Ms; }
+    public double getP99Ms() { return p99Ms; }
+    public double getMaximoMs() { return maximoMs; }
+
+    @Override
+    public String toString() {
+        return String.format("%s{execucoes=%d, linhas=%d, erros=%d, lentas=%d, media=%.2fms, p50=%.2fms, p95=%.2fms, p99=%.2fms, max=%.2fms}",
+                operacao, execucoes, linhas, erros, lentas, mediaMs, p50Ms, p95Ms, p99Ms, maximoMs);
+    }
+}
@@ -0,0 +1,323 @@
+package com.controle.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Mede cada comando JDBC emitido pelas conexões do pool. Os statements são embrulhados em proxies
+// que cronometram os execute*, contam as linhas lidas/afetadas e guardam os parâmetros para o log
+// de consultas lentas. As métricas são agrupadas pela operação do DAO que preparou o comando
+// (ex.: "TransacaoDAO.findPagina"), descoberta uma vez por statement na pilha de chamadas.
+public class MonitorConsultas implements MonitorConsultasMXBean {
+
+    public static final String NOME_JMX = "com.controle:type=MonitorConsultas";
+
+    private static final String PACOTE_APLICACAO = "com.controle.";
+    private static final int TAMANHO_MAXIMO_PARAMETRO = 100;
+    private static final StackWalker PILHA = StackWalker.getInstance();
+
+    private static class Metricas {
+        private final HistogramaLatencia latencias = new HistogramaLatencia();
+        private final LongAdder linhas = new LongAdder();
+        private final LongAdder erros = new LongAdder();
+        private final LongAdder lentas = new LongAdder();
+
+        private EstatisticaConsulta fotografar(String operacao) {
+            return new EstatisticaConsulta(operacao, latencias.getContagem(), linhas.sum(), erros.sum(), lentas.sum(),
+                    latencias.getMediaMillis(), latencias.percentilMillis(0.50), latencias.percentilMillis(0.95),
+                    latencias.percentilMillis(0.99), latencias.getMaximoMillis());
+        }
+
+        private void zerar() {
+            latencias.zerar();
+            linhas.reset();
+            erros.reset();
+            lentas.reset();
+        }
+    }
+
+    private final Map<String, Metricas> operacoes = new ConcurrentHashMap<>();
+    private final Metricas aquisicaoConexao = new Metricas();
+    private volatile long limiteLentaNanos;
+
+    public MonitorConsultas(long limiteConsultaLentaMs) {
+        setLimiteConsultaLentaMs(limiteConsultaLentaMs);
+    }
+
+    public void registrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(NOME_JMX);
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(this, nome);
+            }
+        } catch (JMException e) {
+            System.err.println("Aviso: não foi possível registrar o monitor de consultas no JMX: " + e.getMessage());
+        }
+    }
+
+    public void registrarAquisicao(long nanos) {
+        aquisicaoConexao.latencias.registrar(nanos);
+    }
+
+    // Chamado pela conexão emprestada do pool para todo Statement que ela devolve
+    public Object instrumentar(Object[] args, Object statement) {
+        if (!(statement instanceof Statement)) {
+            return statement;
+        }
+        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+        Class<?> tipo = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return Proxy.newProxyInstance(MonitorConsultas.class.getClassLoader(), new Class<?>[]{tipo},
+                new StatementHandler((Statement) statement, operacaoChamadora(), sql));
+    }
+
+    @Override
+    public List<EstatisticaConsulta> getOperacoes() {
+        List<EstatisticaConsulta> lista = new ArrayList<>();
+        operacoes.forEach((operacao, metricas) -> lista.add(metricas.fotografar(operacao)));
+        lista.sort(Comparator.comparingDouble(EstatisticaConsulta::getP99Ms).reversed());
+        return lista;
+    }
+
+    @Override
+    public EstatisticaConsulta getAquisicaoConexao() {
+        return aquisicaoConexao.fotografar("aquisicao de conexao");
+    }
+
+    @Override
+    public long getLimiteConsultaLentaMs() {
+        return TimeUnit.NANOSECONDS.toMillis(limiteLentaNanos);
+    }
+
+    @Override
+    public void setLimiteConsultaLentaMs(long limiteMs) {
+        this.limiteLentaNanos = limiteMs > 0 ? TimeUnit.MILLISECONDS.toNanos(limiteMs) : Long.MAX_VALUE;
+    }
+
+    @Override
+    public void zerar() {
+        operacoes.values().forEach(Metricas::zerar);
+        aquisicaoConexao.zerar();
+    }
+
+    private Metricas metricas(String operacao) {
+        return operacoes.computeIfAbsent(operacao, chave -> new Metricas());
+    }
+
+    // Primeiro método da aplicação fora do pool/monitor; lambdas são puladas para chegar ao método que as contém
+    private static String operacaoChamadora() {
+        return PILHA.walk(quadros -> quadros
+                .filter(quadro -> quadro.getClassName().startsWith(PACOTE_APLICACAO)
+                        && !quadro.getClassName().startsWith(ConnectionPool.class.getName())
+                        && !quadro.getClassName().startsWith(MonitorConsultas.class.getName())
+                        && !quadro.getMethodName().startsWith("lambda$"))
+                .findFirst()
+                .map(quadro -> quadro.getClassName().substring(quadro.getClassName().lastIndexOf('.') + 1)
+                        + "." + quadro.getMethodName())
+                .orElse("desconhecida"));
+    }
+
+    private void registrarExecucao(String operacao, String sql, Map<Integer, Object> parametros, int lote,
+                                   long nanos, long linhas, boolean erro) {
+        Metricas metricas = metricas(operacao);
+        metricas.latencias.registrar(nanos);
+        metricas.linhas.add(Math.max(0, linhas));
+        if (erro) {
+            metricas.erros.increment();
+        }
+        if (nanos >= limiteLentaNanos) {
+            metricas.lentas.increment();
+            System.err.println(String.format("Consulta lenta (%.1f ms) em %s: %s | parâmetros: %s%s",
+                    nanos / 1_000_000.0, operacao, sql == null ? "(lote de comandos)" : sql.trim(),
+                    formatarParametros(parametros), lote > 1 ? " (último de um lote de " + lote + ")" : ""));
+        }
+    }
+
+    private static String formatarParametros(Map<Integer, Object> parametros) {
+        StringBuilder texto = new StringBuilder("[");
+        parametros.forEach((indice, valor) -> {
+            if (texto.length() > 1) {
+                texto.append(", ");
+            }
+            String formatado = valor instanceof String ? "'" + valor + "'" : String.valueOf(valor);
+            if (formatado.length() > TAMANHO_MAXIMO_PARAMETRO) {
+                formatado = formatado.substring(0, TAMANHO_MAXIMO_PARAMETRO) + "...";
+            }
+            texto.append(indice).append('=').append(formatado);
+        });
+        return texto.append(']').toString();
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String operacao;
+        private final String sqlPreparado;
+        // Parâmetros da linha corrente, em ordem de posição; só lidos quando a execução é lenta
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+        private String sqlLote;
+        private int lote;
+        private ResultSetHandler ultimoResultado;
+
+        private StatementHandler(Statement statement, String operacao, String sqlPreparado) {
+            this.statement = statement;
+            this.operacao = operacao;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parametros.put((Integer) args[0], nome.equals("setNull") ? null : args[1]);
+            } else if (nome.equals("clearParameters")) {
+                parametros.clear();
+            } else if (nome.equals("addBatch")) {
+                lote++;
+                if (args != null && args.length == 1) {
+                    sqlLote = (String) args[0];
+                }
+            } else if (nome.equals("clearBatch")) {
+                lote = 0;
+            } else if (nome.startsWith("execute")) {
+                return executar(metodo, args, nome);
+            } else if (nome.equals("getResultSet")) {
+                return contar(invocar(statement, metodo, args));
+            } else if (nome.equals("close")) {
+                encerrarResultado();
+            } else if (nome.equals("equals")) {
+                return proxy == args[0];
+            } else if (nome.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return invocar(statement, metodo, args);
+        }
+
+        private Object executar(Method metodo, Object[] args, String nome) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+                    : sqlPreparado != null ? sqlPreparado : sqlLote;
+            boolean emLote = nome.endsWith("Batch");
+            int linhasLote = lote;
+            encerrarResultado();
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = invocar(statement, metodo, args);
+            } catch (Throwable e) {
+                registrarExecucao(operacao, sql, parametros, linhasLote, System.nanoTime() - inicio, 0, true);
+                throw e;
+            } finally {
+                if (emLote) {
+                    lote = 0;
+                }
+            }
+            long duracao = System.nanoTime() - inicio;
+
+            if (resultado instanceof ResultSet) {
+                registrarExecucao(operacao, sql, parametros, linhasLote, duracao, 0, false);
+                return contar(resultado);
+            }
+            registrarExecucao(operacao, sql, parametros, linhasLote, duracao, linhasAfetadas(resultado), false);
+            return resultado;
+        }
+
+        private long linhasAfetadas(Object resultado) {
+            if (resultado instanceof Number) {
+                return ((Number) resultado).longValue();
+            }
+            long soma = 0;
+            if (resultado instanceof int[]) {
+                for (int linhas : (int[]) resultado) {
+                    soma += Math.max(0, linhas);
+                }
+            } else if (resultado instanceof long[]) {
+                for (long linhas : (long[]) resultado) {
+                    soma += Math.max(0, linhas);
+                }
+            }
+            return soma;
+        }
+
+        private Object contar(Object resultado) {
+            if (!(resultado instanceof ResultSet)) {
+                return resultado;
+            }
+            ultimoResultado = new ResultSetHandler((ResultSet) resultado, operacao);
+            return Proxy.newProxyInstance(MonitorConsultas.class.getClassLoader(), new Class<?>[]{ResultSet.class}, ultimoResultado);
+        }
+
+        private void encerrarResultado() {
+            if (ultimoResultado != null) {
+                ultimoResultado.contabilizar();
+                ultimoResultado = null;
+            }
+        }
+    }
+
+    // As linhas lidas entram nas métricas quando o ResultSet (ou o statement dono dele) é fechado
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final String operacao;
+        private long linhas;
+        private boolean contabilizado;
+
+        private ResultSetHandler(ResultSet resultSet, String operacao) {
+            this.resultSet = resultSet;
+            this.operacao = operacao;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            switch (metodo.getName()) {
+                case "next":
+                    Object existe = invocar(resultSet, metodo, args);
+                    if (Boolean.TRUE.equals(existe)) {
+                        linhas++;
+                    }
+                    return existe;
+                case "close":
+                    contabilizar();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return invocar(resultSet, metodo, args);
+        }
+
+        private void contabilizar() {
+            if (!contabilizado) {
+                contabilizado = true;
+                metricas(operacao).linhas.add(linhas);
+            }
+        }
+    }
+}
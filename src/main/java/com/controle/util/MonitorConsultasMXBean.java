@@ -0,0 +1,16 @@
+package com.controle.util;
+
+import java.util.List;
+
+public interface MonitorConsultasMXBean {
+
+    List<EstatisticaConsulta> getOperacoes();
+
+    EstatisticaConsulta getAquisicaoConexao();
+
+    long getLimiteConsultaLentaMs();
+
+    void setLimiteConsultaLentaMs(long limiteMs);
+
+    void zerar();
+}
@@ -0,0 +1,231 @@
+package com.controle.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SchemaMigrations {
+
+    @FunctionalInterface
+    public interface PassoMigracao {
+        void aplicar(Connection conn) throws SQLException;
+    }
+
+    public static class Migracao {
+        private final int versao;
+        private final String descricao;
+        private final PassoMigracao passo;
+
+        public Migracao(int versao, String descricao, PassoMigracao passo) {
+            this.versao = versao;
+            this.descricao = descricao;
+            this.passo = passo;
+        }
+
+        public Migracao(int versao, String descricao, String... comandosSql) {
+            this(versao, descricao, conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : comandosSql) {
+                        stmt.execute(sql);
+                    }
+                }
+            });
+        }
+
+        public int getVersao() { return versao; }
+        public String getDescricao() { return descricao; }
+    }
+
+    // As migrações são montadas para o dialeto da conexão; no SQL Server o texto gerado é o mesmo
+    // das versões já aplicadas em bancos existentes
+    private static List<Migracao> migracoes(DialetoSql dialeto) {
+        String id = dialeto.chavePrimariaIdentidade();
+        String textoLongo = dialeto.tipoTextoLongo();
+        return Arrays.asList(
+                new Migracao(1, "Tabelas base",
+                        dialeto.criarTabelaSeNaoExistir("categorias",
+                                "id " + id + ", " +
+                                "nome NVARCHAR(255) NOT NULL UNIQUE, " +
+                                "tipo NVARCHAR(50) NOT NULL"),
+                        dialeto.criarTabelaSeNaoExistir("contas",
+                                "id " + id + ", " +
+                                "nome NVARCHAR(255) NOT NULL UNIQUE, " +
+                                "saldo_inicial DECIMAL(18, 2) NOT NULL DEFAULT 0, " +
+                                "tipo NVARCHAR(50) NOT NULL"),
+                        dialeto.criarTabelaSeNaoExistir("transacoes",
+                                "id " + id + ", " +
+                                "descricao " + textoLongo + " NOT NULL, " +
+                                "valor DECIMAL(18, 2) NOT NULL, " +
+                                "data DATE NOT NULL, " +
+                                "tipo NVARCHAR(50) NOT NULL, " +
+                                "categoria_id INT, " +
+                                "conta_id INT, " +
+                                "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE SET NULL, " +
+                                "FOREIGN KEY (conta_id) REFERENCES contas(id) ON DELETE CASCADE"),
+                        dialeto.criarTabelaSeNaoExistir("transacoes_recorrentes",
+                                "id " + id + ", " +
+                                "descricao " + textoLongo + " NOT NULL, " +
+                                "valor DECIMAL(18, 2) NOT NULL, " +
+                                "tipo NVARCHAR(50) NOT NULL, " +
+                                "categoria_id INT NOT NULL, " +
+                                "conta_id INT NOT NULL, " +
+                                "dia_do_mes INT NOT NULL, " +
+                                "data_inicio DATE NOT NULL, " +
+                                "data_fim DATE NULL, " +
+                                "data_ultimo_processamento DATE NULL, " +
+                                "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE CASCADE, " +
+                                "FOREIGN KEY (conta_id) REFERENCES contas(id) ON DELETE CASCADE"),
+                        dialeto.criarTabelaSeNaoExistir("orcamentos",
+                                "id " + id + ", " +
+                                "categoria_id INT NOT NULL, " +
+                                "valor_limite DECIMAL(18, 2) NOT NULL, " +
+                                "mes INT NOT NULL, " +
+                                "ano INT NOT NULL, " +
+                                "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE CASCADE, " +
+                                "CONSTRAINT UQ_Categoria_Mes_Ano UNIQUE (categoria_id, mes, ano)")
+                ),
+                new Migracao(2, "Índices para relatórios, extrato e orçamentos",
+                        dialeto.criarIndice("IX_transacoes_data", "transacoes", "data", "valor, tipo, categoria_id, conta_id"),
+                        dialeto.criarIndice("IX_transacoes_conta_data", "transacoes", "conta_id, data", "valor, tipo"),
+                        dialeto.criarIndice("IX_transacoes_categoria_data", "transacoes", "categoria_id, data", "valor, tipo"),
+                        dialeto.criarIndice("IX_orcamentos_ano_mes", "orcamentos", "ano, mes", null)
+                ),
+                new Migracao(3, "Projeção de saldos por conta",
+                        "CREATE TABLE saldos_conta (" +
+                                "conta_id INT PRIMARY KEY, " +
+                                "saldo DECIMAL(18, 2) NOT NULL DEFAULT 0, " +
+                                "FOREIGN KEY (conta_id) REFERENCES contas(id) ON DELETE CASCADE" +
+                                ");",
+                        "INSERT INTO saldos_conta (conta_id, saldo) " +
+                                "SELECT c.id, COALESCE(SUM(CASE t.tipo WHEN 'RECEITA' THEN t.valor WHEN 'DESPESA' THEN -t.valor ELSE 0 END), 0) " +
+                                "FROM contas c LEFT JOIN transacoes t ON t.conta_id = c.id " +
+                                "GROUP BY c.id;"
+                ),
+                new Migracao(4, "Chave de ocorrência para lançamentos recorrentes",
+                        dialeto.adicionarColunas("transacoes", "recorrencia_id INT NULL", "data_ocorrencia DATE NULL"),
+                        dialeto.criarIndiceUnicoParcial("UX_transacoes_recorrencia", "transacoes",
+                                "recorrencia_id, data_ocorrencia", "recorrencia_id IS NOT NULL")
+                ),
+                new Migracao(5, "Marcadores de execução de tarefas",
+                        "CREATE TABLE execucoes_tarefas (" +
+                                "nome NVARCHAR(100) PRIMARY KEY, " +
+                                "ultima_execucao " + dialeto.tipoDataHora() + " NOT NULL" +
+                                ");"
+                ),
+                new Migracao(6, "Gastos por categoria e mês",
+                        "CREATE TABLE gastos_categoria_mes (" +
+                                "categoria_id INT NOT NULL, " +
+                                "ano INT NOT NULL, " +
+                                "mes INT NOT NULL, " +
+                                "total DECIMAL(18, 2) NOT NULL DEFAULT 0, " +
+                                "PRIMARY KEY (categoria_id, ano, mes), " +
+                                "FOREIGN KEY (categoria_id) REFERENCES categorias(id) ON DELETE CASCADE" +
+                                ");",
+                        "INSERT INTO gastos_categoria_mes (categoria_id, ano, mes, total) " +
+                                "SELECT categoria_id, YEAR(data), MONTH(data), SUM(valor) " +
+                                "FROM transacoes WHERE tipo = 'DESPESA' AND categoria_id IS NOT NULL " +
+                                "GROUP BY categoria_id, YEAR(data), MONTH(data);"
+                ),
+                new Migracao(7, "Índice invertido para busca por descrição", conn -> {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("CREATE TABLE indice_busca (" +
+                                "entidade CHAR(1) NOT NULL, " +
+                                "termo NVARCHAR(64) NOT NULL, " +
+                                "entidade_id INT NOT NULL, " +
+                                "PRIMARY KEY (entidade, termo, entidade_id)" +
+                                ");");
+                        stmt.execute(dialeto.criarIndice("IX_indice_busca_entidade", "indice_busca", "entidade, entidade_id", null));
+                    }
+                    indexarDescricoes("T", "transacoes", conn);
+                    indexarDescricoes("R", "transacoes_recorrentes", conn);
+                })
+        );
+    }
+
+    public static void migrar(Connection conn) throws SQLException {
+        DialetoSql dialeto = DialetoSql.da(conn);
+        List<Migracao> migracoes = migracoes(dialeto);
+        int versaoAtual = consultarVersaoAtual(dialeto, conn);
+        int versaoAlvo = migracoes.get(migracoes.size() - 1).getVersao();
+        if (versaoAtual >= versaoAlvo) {
+            System.out.println("Schema do banco de dados atualizado (versão " + versaoAtual + ").");
+            return;
+        }
+
+        List<Migracao> pendentes = new ArrayList<>();
+        for (Migracao migracao : migracoes) {
+            if (migracao.getVersao() > versaoAtual) {
+                pendentes.add(migracao);
+            }
+        }
+
+        boolean autoCommitOriginal = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (Migracao migracao : pendentes) {
+                try {
+                    migracao.passo.aplicar(conn);
+                    registrarVersao(migracao, conn);
+                    conn.commit();
+                    System.out.println("Migração " + migracao.getVersao() + " aplicada: " + migracao.getDescricao());
+                } catch (SQLException e) {
+                    conn.rollback();
+                    System.err.println("Erro ao aplicar migração " + migracao.getVersao() + ": " + e.getMessage());
+                    throw e;
+                }
+            }
+        } finally {
+            conn.setAutoCommit(autoCommitOriginal);
+        }
+    }
+
+    private static void indexarDescricoes(String entidade, String tabela, Connection conn) throws SQLException {
+        String insertSql = "INSERT INTO indice_busca (entidade, termo, entidade_id) VALUES (?, ?, ?)";
+        try (Statement consulta = conn.createStatement();
+             ResultSet rs = consulta.executeQuery("SELECT id, descricao FROM " + tabela);
+             PreparedStatement insert = conn.prepareStatement(insertSql)) {
+            int pendentes = 0;
+            while (rs.next()) {
+                for (String termo : TokenizadorBusca.termos(rs.getString("descricao"))) {
+                    insert.setString(1, entidade);
+                    insert.setString(2, termo);
+                    insert.setInt(3, rs.getInt("id"));
+                    insert.addBatch();
+                    if (++pendentes == 1000) {
+                        insert.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+            }
+            if (pendentes > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static int consultarVersaoAtual(DialetoSql dialeto, Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(dialeto.criarTabelaSeNaoExistir("schema_versao",
+                    "versao INT PRIMARY KEY, " +
+                    "descricao NVARCHAR(255) NOT NULL, " +
+                    "aplicada_em " + dialeto.tipoDataHora() + " NOT NULL DEFAULT " + dialeto.agora()));
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(versao), 0) FROM schema_versao")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static void registrarVersao(Migracao migracao, Connection conn) throws SQLException {
+        String sql = "INSERT INTO schema_versao (versao, descricao) VALUES (?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migracao.getVersao());
+            stmt.setString(2, migracao.getDescricao());
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.controle.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Quebra descrições em termos para o índice de busca: sem acentos ("Almoço" -> "almoco"),
+// minúsculos e separados por qualquer caractere que não seja letra ou dígito
+public final class TokenizadorBusca {
+
+    public static final int TAMANHO_MAXIMO_TERMO = 64;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private TokenizadorBusca() {
+    }
+
+    public static String normalizar(String texto) {
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> termos(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> termos = new LinkedHashSet<>();
+        for (String termo : SEPARADORES.split(normalizar(texto))) {
+            if (!termo.isEmpty()) {
+                termos.add(termo.length() > TAMANHO_MAXIMO_TERMO ? termo.substring(0, TAMANHO_MAXIMO_TERMO) : termo);
+            }
+        }
+        return new ArrayList<>(termos);
+    }
+}
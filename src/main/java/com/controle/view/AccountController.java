@@ -3,8 +3,9 @@ package com.controle.view;
 import com.controle.model.Conta;
 import com.controle.model.TipoConta;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.application.Platform;
-import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
@@ -18,9 +19,8 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.text.NumberFormat;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -38,8 +38,8 @@ public class AccountController extends BaseController {
     @FXML private TableColumn<ContaWrapper, Integer> colId;
     @FXML private TableColumn<ContaWrapper, String> colName;
     @FXML private TableColumn<ContaWrapper, TipoConta> colType;
-    @FXML private TableColumn<ContaWrapper, Double> colSaldoInicial;
-    @FXML private TableColumn<ContaWrapper, Double> colSaldoAtual;
+    @FXML private TableColumn<ContaWrapper, Long> colSaldoInicial;
+    @FXML private TableColumn<ContaWrapper, Long> colSaldoAtual;
 
     @FXML private Button addAccountButton;
     @FXML private Button updateAccountButton;
@@ -49,28 +49,30 @@ public class AccountController extends BaseController {
     @FXML private Label accountNameErrorLabel;
     @FXML private Label accountTypeErrorLabel;
     @FXML private Label accountSaldoInicialErrorLabel;
+    @FXML private TextField searchField;
 
     private GastoPessoalService service;
     private ObservableList<ContaWrapper> contasData = FXCollections.observableArrayList();
+    private DebouncedSearch<List<ContaWrapper>> accountSearch;
 
     private ExecutorService executorService;
 
     public static class ContaWrapper {
         private final Conta conta;
-        private final SimpleDoubleProperty saldoAtual;
+        private final SimpleLongProperty saldoAtual;
 
         public ContaWrapper(Conta conta) {
             this.conta = conta;
-            this.saldoAtual = new SimpleDoubleProperty(0.0);
+            this.saldoAtual = new SimpleLongProperty(0L);
         }
 
         public int getId() { return conta.getId(); }
         public String getNome() { return conta.getNome(); }
         public TipoConta getTipo() { return conta.getTipo(); }
-        public double getSaldoInicial() { return conta.getSaldoInicial(); }
-        public SimpleDoubleProperty saldoAtualProperty() { return saldoAtual; }
-        public double getSaldoAtual() { return saldoAtual.get(); }
-        public void setSaldoAtual(double saldo) { this.saldoAtual.set(saldo); }
+        public long getSaldoInicial() { return conta.getSaldoInicialCentavos(); }
+        public SimpleLongProperty saldoAtualProperty() { return saldoAtual; }
+        public long getSaldoAtual() { return saldoAtual.get(); }
+        public void setSaldoAtual(long saldo) { this.saldoAtual.set(saldo); }
         public Conta getConta() { return conta; }
     }
 
@@ -83,7 +85,7 @@ public class AccountController extends BaseController {
             return thread;
         };
 
-        this.executorService = Executors.newFixedThreadPool(5, daemonThreadFactory);
+        this.executorService = Executors.newSingleThreadExecutor(daemonThreadFactory);
     }
 
     @FXML
@@ -102,6 +104,21 @@ public class AccountController extends BaseController {
         accountTable.setItems(contasData);
         accountTable.setPlaceholder(new Label("Carregando contas..."));
 
+        accountSearch = new DebouncedSearch<>(
+                (term, cancellation) -> service.listarContasPorTermo(term, cancellation).stream().map(ContaWrapper::new).collect(Collectors.toList()),
+                (term, result) -> {
+                    contasData.setAll(result);
+                    if (contasData.isEmpty()) {
+                        accountTable.setPlaceholder(new Label("Nenhuma conta encontrada"));
+                    }
+                    calculateSaldosAsync();
+                },
+                error -> {
+                    accountTable.setPlaceholder(new Label("Erro ao carregar contas."));
+                    showAlert(Alert.AlertType.ERROR, "Erro ao Carregar", "Não foi possível carregar a lista de contas.");
+                });
+        accountSearch.bind(searchField);
+
         loadAccounts("");
         setFormMode(false);
         clearAllErrors();
@@ -148,18 +165,16 @@ public class AccountController extends BaseController {
         }
     }
 
-    private void formatCurrencyColumn(TableColumn<ContaWrapper, Double> column) {
-        column.setCellFactory(cell -> new TableCell<ContaWrapper, Double>() {
-            private final NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
-
+    private void formatCurrencyColumn(TableColumn<ContaWrapper, Long> column) {
+        column.setCellFactory(cell -> new TableCell<ContaWrapper, Long>() {
             @Override
-            protected void updateItem(Double item, boolean empty) {
+            protected void updateItem(Long item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
                     getStyleClass().remove("balance-label-negative");
                 } else {
-                    setText(currencyFormat.format(item));
+                    setText(Dinheiro.formatar(item));
                     if (item < 0) {
                         if (!getStyleClass().contains("balance-label-negative")) {
                             getStyleClass().add("balance-label-negative");
@@ -179,7 +194,7 @@ public class AccountController extends BaseController {
             selectedAccountId = conta.getId();
             accountNameField.setText(conta.getNome());
             accountTypeComboBox.getSelectionModel().select(conta.getTipo());
-            accountSaldoInicialField.setText(String.format(Locale.US, "%.2f", conta.getSaldoInicial()));
+            accountSaldoInicialField.setText(Dinheiro.paraTexto(conta.getSaldoInicialCentavos()));
             setFormMode(true);
         } else {
             handleNewAccount(null);
@@ -202,6 +217,7 @@ public class AccountController extends BaseController {
         accountTable.getSelectionModel().clearSelection();
         setFormMode(false);
         clearAllErrors();
+        searchField.clear();
         loadAccounts("");
     }
 
@@ -210,7 +226,7 @@ public class AccountController extends BaseController {
         clearAllErrors();
         String name = accountNameField.getText();
         TipoConta type = accountTypeComboBox.getSelectionModel().getSelectedItem();
-        double saldoInicial = 0.0;
+        long saldoInicial = 0L;
         boolean isValid = true;
         if (name == null || name.trim().isEmpty()) {
             showFieldError(accountNameField, accountNameErrorLabel, "Nome da conta é obrigatório.");
@@ -221,9 +237,9 @@ public class AccountController extends BaseController {
             isValid = false;
         }
         try {
-            String saldoStr = accountSaldoInicialField.getText().replace(",", ".");
+            String saldoStr = accountSaldoInicialField.getText();
             if (saldoStr != null && !saldoStr.trim().isEmpty()) {
-                saldoInicial = Double.parseDouble(saldoStr);
+                saldoInicial = Dinheiro.parse(saldoStr);
             }
         } catch (NumberFormatException e) {
             showFieldError(accountSaldoInicialField, accountSaldoInicialErrorLabel, "Valor inválido. Use números.");
@@ -275,44 +291,28 @@ public class AccountController extends BaseController {
 
     private void loadAccounts(String searchTerm) {
         accountTable.setPlaceholder(new Label("Buscando contas..."));
-        Task<List<ContaWrapper>> loadTask = new Task<>() {
+        accountSearch.searchNow(searchTerm);
+    }
+
+    private void calculateSaldosAsync() {
+        List<ContaWrapper> wrappers = List.copyOf(contasData);
+        Task<Map<Integer, Long>> saldosTask = new Task<>() {
             @Override
-            protected List<ContaWrapper> call() throws Exception {
-                List<Conta> contas = service.listarContasPorTermo(searchTerm);
-                return contas.stream().map(ContaWrapper::new).collect(Collectors.toList());
+            protected Map<Integer, Long> call() throws Exception {
+                return service.getSaldosAtuais();
             }
         };
-        loadTask.setOnSucceeded(event -> {
-            contasData.setAll(loadTask.getValue());
-            if (contasData.isEmpty()) {
-                accountTable.setPlaceholder(new Label("Nenhuma conta cadastrada"));
+        saldosTask.setOnSucceeded(event -> {
+            Map<Integer, Long> saldos = saldosTask.getValue();
+            for (ContaWrapper wrapper : wrappers) {
+                wrapper.setSaldoAtual(saldos.getOrDefault(wrapper.getId(), wrapper.getSaldoInicial()));
             }
-            calculateSaldosAsync();
         });
-        loadTask.setOnFailed(event -> {
-            accountTable.setPlaceholder(new Label("Erro ao carregar contas."));
-            showAlert(Alert.AlertType.ERROR, "Erro ao Carregar", "Não foi possível carregar a lista de contas.");
+        saldosTask.setOnFailed(event -> {
+            System.err.println("Falha ao calcular saldos das contas: " + saldosTask.getException().getMessage());
         });
-        new Thread(loadTask).start();
-    }
 
-    private void calculateSaldosAsync() {
-        for (ContaWrapper wrapper : contasData) {
-            Task<Double> saldoTask = new Task<>() {
-                @Override
-                protected Double call() throws Exception {
-                    return service.getSaldoAtual(wrapper.getId());
-                }
-            };
-            saldoTask.setOnSucceeded(event -> {
-                wrapper.setSaldoAtual(saldoTask.getValue());
-            });
-            saldoTask.setOnFailed(event -> {
-                System.err.println("Falha ao calcular saldo para conta " + wrapper.getId());
-            });
-
-            executorService.submit(saldoTask);
-        }
+        executorService.submit(saldosTask);
     }
 
     @Override
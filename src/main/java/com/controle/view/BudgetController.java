@@ -1,9 +1,11 @@
 package com.controle.view;
 
 import com.controle.model.Categoria;
+import com.controle.model.ConsumoOrcamento;
 import com.controle.model.Orcamento;
 import com.controle.model.TipoCategoria;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -11,9 +13,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.application.Platform;
-import java.text.NumberFormat;
 import java.time.LocalDate;
-import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -26,12 +26,14 @@ public class BudgetController extends BaseController {
     @FXML private TextField valorLimiteField;
     @FXML private ComboBox<Integer> mesComboBox;
     @FXML private ComboBox<Integer> anoComboBox;
-    @FXML private TableView<Orcamento> budgetTable;
-    @FXML private TableColumn<Orcamento, Integer> colId;
-    @FXML private TableColumn<Orcamento, Categoria> colCategoria;
-    @FXML private TableColumn<Orcamento, Double> colValorLimite;
-    @FXML private TableColumn<Orcamento, Integer> colMes;
-    @FXML private TableColumn<Orcamento, Integer> colAno;
+    @FXML private TableView<ConsumoOrcamento> budgetTable;
+    @FXML private TableColumn<ConsumoOrcamento, Integer> colId;
+    @FXML private TableColumn<ConsumoOrcamento, Categoria> colCategoria;
+    @FXML private TableColumn<ConsumoOrcamento, Long> colValorLimite;
+    @FXML private TableColumn<ConsumoOrcamento, Long> colGasto;
+    @FXML private TableColumn<ConsumoOrcamento, Long> colRestante;
+    @FXML private TableColumn<ConsumoOrcamento, Integer> colMes;
+    @FXML private TableColumn<ConsumoOrcamento, Integer> colAno;
     @FXML private ComboBox<Integer> filtroMesComboBox;
     @FXML private ComboBox<Integer> filtroAnoComboBox;
     @FXML private Button addBudgetButton;
@@ -44,7 +46,7 @@ public class BudgetController extends BaseController {
     @FXML private Label anoErrorLabel;
 
     private GastoPessoalService service;
-    private ObservableList<Orcamento> orcamentosData = FXCollections.observableArrayList();
+    private ObservableList<ConsumoOrcamento> orcamentosData = FXCollections.observableArrayList();
     private ObservableList<Categoria> categoriesList = FXCollections.observableArrayList();
 
     public BudgetController() {
@@ -93,22 +95,15 @@ public class BudgetController extends BaseController {
     private void setupTableColumns() {
         colId.setCellValueFactory(new PropertyValueFactory<>("id"));
         colCategoria.setCellValueFactory(new PropertyValueFactory<>("categoria"));
-        colValorLimite.setCellValueFactory(new PropertyValueFactory<>("valorLimite"));
+        colValorLimite.setCellValueFactory(new PropertyValueFactory<>("valorLimiteCentavos"));
+        colGasto.setCellValueFactory(new PropertyValueFactory<>("gastoCentavos"));
+        colRestante.setCellValueFactory(new PropertyValueFactory<>("restanteCentavos"));
         colMes.setCellValueFactory(new PropertyValueFactory<>("mes"));
         colAno.setCellValueFactory(new PropertyValueFactory<>("ano"));
 
-        colValorLimite.setCellFactory(column -> new TableCell<>() {
-            @Override
-            protected void updateItem(Double item, boolean empty) {
-                super.updateItem(item, empty);
-                if (empty || item == null) {
-                    setText(null);
-                } else {
-                    NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(new Locale("pt", "BR"));
-                    setText(currencyFormat.format(item));
-                }
-            }
-        });
+        formatCurrencyColumn(colValorLimite);
+        formatCurrencyColumn(colGasto);
+        formatCurrencyColumn(colRestante);
 
         colCategoria.setCellFactory(column -> new TableCell<>() {
             @Override
@@ -122,24 +117,47 @@ public class BudgetController extends BaseController {
         budgetTable.setPlaceholder(new Label("Nenhum orçamento encontrado"));
     }
 
+    private void formatCurrencyColumn(TableColumn<ConsumoOrcamento, Long> column) {
+        column.setCellFactory(cell -> new TableCell<>() {
+            @Override
+            protected void updateItem(Long item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    getStyleClass().remove("balance-label-negative");
+                } else {
+                    setText(Dinheiro.formatar(item));
+                    if (item < 0) {
+                        if (!getStyleClass().contains("balance-label-negative")) {
+                            getStyleClass().add("balance-label-negative");
+                        }
+                    } else {
+                        getStyleClass().remove("balance-label-negative");
+                    }
+                }
+            }
+        });
+    }
+
     private void loadBudgets() {
         try {
             orcamentosData.clear();
             Integer mes = filtroMesComboBox.getValue();
             Integer ano = filtroAnoComboBox.getValue();
-            orcamentosData.addAll(service.listarOrcamentosPorPeriodo(mes, ano));
+            orcamentosData.addAll(service.listarConsumoOrcamentos(mes, ano));
         } catch (Exception e) {
             e.printStackTrace();
             Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Erro ao carregar orçamentos", e.getMessage()));
         }
     }
 
-    private void showBudgetDetails(Orcamento orcamento) {
+    private void showBudgetDetails(ConsumoOrcamento consumo) {
         clearAllErrors();
-        if (orcamento != null) {
+        if (consumo != null) {
+            Orcamento orcamento = consumo.getOrcamento();
             selectedBudgetId = orcamento.getId();
             categoryComboBox.setValue(orcamento.getCategoria());
-            valorLimiteField.setText(String.format(Locale.US, "%.2f", orcamento.getValorLimite()));
+            valorLimiteField.setText(Dinheiro.paraTexto(orcamento.getValorLimiteCentavos()));
             mesComboBox.setValue(orcamento.getMes());
             anoComboBox.setValue(orcamento.getAno());
             setFormMode(true);
@@ -174,7 +192,7 @@ public class BudgetController extends BaseController {
         Categoria categoria = categoryComboBox.getValue();
         Integer mes = mesComboBox.getValue();
         Integer ano = anoComboBox.getValue();
-        double valor = 0.0;
+        long valor = 0L;
 
         boolean isValid = true;
 
@@ -187,7 +205,7 @@ public class BudgetController extends BaseController {
         }
 
         try {
-            valor = Double.parseDouble(valorLimiteField.getText().replace(",", "."));
+            valor = Dinheiro.parse(valorLimiteField.getText());
             if (valor <= 0) {
                 showFieldError(valorLimiteField, valorLimiteErrorLabel, "Valor deve ser positivo.");
                 isValid = false;
@@ -13,8 +13,8 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
-import javafx.application.Platform;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 public class CategoryController extends BaseController {
@@ -34,9 +34,11 @@ public class CategoryController extends BaseController {
     @FXML private Label categoryNameErrorLabel;
     @FXML private Label categoryTypeErrorLabel;
     @FXML private Label fullScreenHintLabel;
+    @FXML private TextField searchField;
 
     private final GastoPessoalService service;
     private final ObservableList<Categoria> categoriasData = FXCollections.observableArrayList();
+    private DebouncedSearch<List<Categoria>> categorySearch;
 
     public CategoryController() {
         this.service = new GastoPessoalService();
@@ -58,6 +60,15 @@ public class CategoryController extends BaseController {
                 (obs, oldV, newV) -> showCategoryDetails(newV)
         );
 
+        categorySearch = new DebouncedSearch<>(
+                service::listarCategoriasPorTermo,
+                (term, result) -> categoriasData.setAll(result),
+                error -> {
+                    error.printStackTrace();
+                    showAlert(Alert.AlertType.ERROR, "Erro ao carregar categorias", error.getMessage());
+                });
+        categorySearch.bind(searchField);
+
         loadCategories("");
         setFormMode(false);
         clearAllErrors();
@@ -90,6 +101,7 @@ public class CategoryController extends BaseController {
         categoryTable.getSelectionModel().clearSelection();
         setFormMode(false);
         clearAllErrors();
+        searchField.clear();
         loadCategories("");
     }
 
@@ -166,13 +178,7 @@ public class CategoryController extends BaseController {
     }
 
     private void loadCategories(String searchTerm) {
-        try {
-            categoriasData.clear();
-            categoriasData.addAll(service.listarCategoriasPorTermo(searchTerm));
-        } catch (Exception e) {
-            e.printStackTrace();
-            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Erro ao carregar categorias", e.getMessage()));
-        }
+        categorySearch.searchNow(searchTerm);
     }
 
     @Override
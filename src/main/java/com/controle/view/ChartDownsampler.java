@@ -0,0 +1,156 @@
+package com.controle.view;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Reduz séries diárias longas a no máximo maxPoints pontos para o gráfico de patrimônio.
+// Primeiro agrupa por dia/semana/mês mantendo mínimo e máximo de cada grupo, depois
+// aplica Largest-Triangle-Three-Buckets (LTTB), que preserva picos e vales visíveis.
+public final class ChartDownsampler {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        LocalDate bucketStart(LocalDate date) {
+            switch (this) {
+                case WEEK: return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH: return date.withDayOfMonth(1);
+                default: return date;
+            }
+        }
+
+        long bucketDays() {
+            switch (this) {
+                case WEEK: return 7;
+                case MONTH: return 30;
+                default: return 1;
+            }
+        }
+
+        // Granularidade mais grossa que ainda deixa pelo menos maxPoints pontos (mínimo + máximo por grupo)
+        static Granularity forRange(long days, int maxPoints) {
+            if (days / MONTH.bucketDays() * 2 >= maxPoints) return MONTH;
+            if (days / WEEK.bucketDays() * 2 >= maxPoints) return WEEK;
+            return DAY;
+        }
+    }
+
+    public static final class Point {
+        private final LocalDate date;
+        private final double value;
+
+        Point(LocalDate date, double value) {
+            this.date = date;
+            this.value = value;
+        }
+
+        public LocalDate getDate() { return date; }
+        public double getValue() { return value; }
+        public long getEpochDay() { return date.toEpochDay(); }
+    }
+
+    private ChartDownsampler() {
+    }
+
+    public static List<Point> downsample(Map<LocalDate, Double> series, int maxPoints) {
+        List<Point> points = new ArrayList<>(series.size());
+        series.forEach((date, value) -> points.add(new Point(date, value)));
+        if (maxPoints < 3 || points.size() <= maxPoints) {
+            return points;
+        }
+
+        Granularity granularity = Granularity.forRange(points.size(), maxPoints);
+        List<Point> reduced = granularity == Granularity.DAY ? points : bucketExtremes(points, granularity);
+        return reduced.size() <= maxPoints ? reduced : largestTriangleThreeBuckets(reduced, maxPoints);
+    }
+
+    public static Point nearest(List<Point> points, double epochDay) {
+        int low = 0;
+        int high = points.size() - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (points.get(mid).getEpochDay() < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low > 0 && epochDay - points.get(low - 1).getEpochDay() < points.get(low).getEpochDay() - epochDay) {
+            return points.get(low - 1);
+        }
+        return points.get(low);
+    }
+
+    private static List<Point> bucketExtremes(List<Point> points, Granularity granularity) {
+        List<Point> reduced = new ArrayList<>();
+        reduced.add(points.get(0));
+        int start = 0;
+        while (start < points.size()) {
+            LocalDate bucket = granularity.bucketStart(points.get(start).getDate());
+            int end = start;
+            int min = start;
+            int max = start;
+            while (end < points.size() && granularity.bucketStart(points.get(end).getDate()).equals(bucket)) {
+                if (points.get(end).getValue() < points.get(min).getValue()) min = end;
+                if (points.get(end).getValue() > points.get(max).getValue()) max = end;
+                end++;
+            }
+            addIfAfterLast(reduced, points.get(Math.min(min, max)));
+            addIfAfterLast(reduced, points.get(Math.max(min, max)));
+            start = end;
+        }
+        addIfAfterLast(reduced, points.get(points.size() - 1));
+        return reduced;
+    }
+
+    private static void addIfAfterLast(List<Point> reduced, Point point) {
+        if (reduced.get(reduced.size() - 1).getDate().isBefore(point.getDate())) {
+            reduced.add(point);
+        }
+    }
+
+    private static List<Point> largestTriangleThreeBuckets(List<Point> points, int maxPoints) {
+        List<Point> sampled = new ArrayList<>(maxPoints);
+        double bucketSize = (double) (points.size() - 2) / (maxPoints - 2);
+        int selected = 0;
+        sampled.add(points.get(0));
+
+        for (int i = 0; i < maxPoints - 2; i++) {
+            int nextStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, points.size());
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += points.get(j).getEpochDay();
+                avgY += points.get(j).getValue();
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int start = (int) Math.floor(i * bucketSize) + 1;
+            int end = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double ax = points.get(selected).getEpochDay();
+            double ay = points.get(selected).getValue();
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((ax - avgX) * (points.get(j).getValue() - ay)
+                        - (ax - points.get(j).getEpochDay()) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            sampled.add(points.get(chosen));
+            selected = chosen;
+        }
+
+        sampled.add(points.get(points.size() - 1));
+        return sampled;
+    }
+}
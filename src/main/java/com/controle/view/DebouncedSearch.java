@@ -0,0 +1,140 @@
+package com.controle.view;
+
+import com.controle.util.CancelamentoConsulta;
+import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.scene.control.TextInputControl;
+import javafx.util.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Busca com debounce: aguarda o usuário parar de digitar, executa a consulta fora da
+// thread do JavaFX e só aplica o resultado da busca mais recente. Uma busca substituída tem a
+// consulta cancelada no banco, liberando a thread e a conexão para a próxima.
+public class DebouncedSearch<T> {
+
+    private static final Duration DEFAULT_DELAY = Duration.millis(300);
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "DebouncedSearch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final PauseTransition pause;
+    private final BiFunction<String, CancelamentoConsulta, T> query;
+    private final BiConsumer<String, T> onResult;
+    private final Consumer<Throwable> onError;
+
+    private String pendingTerm = "";
+    private Task<T> currentTask;
+    private final List<CancelamentoConsulta> runningQueries = new ArrayList<>();
+    private long generation = 0;
+
+    public DebouncedSearch(BiFunction<String, CancelamentoConsulta, T> query, BiConsumer<String, T> onResult, Consumer<Throwable> onError) {
+        this(DEFAULT_DELAY, query, onResult, onError);
+    }
+
+    public DebouncedSearch(Duration delay, BiFunction<String, CancelamentoConsulta, T> query, BiConsumer<String, T> onResult,
+                           Consumer<Throwable> onError) {
+        this.query = query;
+        this.onResult = onResult;
+        this.onError = onError;
+        this.pause = new PauseTransition(delay);
+        this.pause.setOnFinished(event -> run(pendingTerm));
+    }
+
+    public void bind(TextInputControl field) {
+        field.textProperty().addListener((observable, oldValue, newValue) -> schedule(newValue));
+    }
+
+    public void schedule(String term) {
+        pendingTerm = term == null ? "" : term;
+        pause.playFromStart();
+    }
+
+    public void searchNow(String term) {
+        pause.stop();
+        run(term == null ? "" : term);
+    }
+
+    public void cancel() {
+        pause.stop();
+        generation++;
+        if (currentTask != null) {
+            currentTask.cancel(true);
+            currentTask = null;
+        }
+        runningQueries.forEach(CancelamentoConsulta::cancelar);
+        runningQueries.clear();
+    }
+
+    // Verdadeiro enquanto uma busca aguarda o debounce ou ainda está em execução
+    public boolean isPending() {
+        return pause.getStatus() == Animation.Status.RUNNING || currentTask != null;
+    }
+
+    // Consulta complementar ao resultado atual (ex.: a próxima página), no mesmo executor; o resultado
+    // é descartado se outra busca for agendada ou iniciada antes de ela terminar
+    public <R> void runFollowUp(Function<CancelamentoConsulta, R> followUp, Consumer<R> onFollowUpResult,
+                                Consumer<Throwable> onFollowUpError) {
+        long taskGeneration = generation;
+        CancelamentoConsulta cancellation = new CancelamentoConsulta();
+        Task<R> task = new Task<>() {
+            @Override
+            protected R call() {
+                return followUp.apply(cancellation);
+            }
+        };
+        runningQueries.add(cancellation);
+        task.setOnSucceeded(event -> {
+            runningQueries.remove(cancellation);
+            if (taskGeneration == generation && !isPending()) {
+                onFollowUpResult.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            runningQueries.remove(cancellation);
+            if (taskGeneration == generation) {
+                onFollowUpError.accept(task.getException());
+            }
+        });
+        executor.submit(task);
+    }
+
+    private void run(String term) {
+        cancel();
+        long taskGeneration = generation;
+        CancelamentoConsulta cancellation = new CancelamentoConsulta();
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() {
+                return query.apply(term, cancellation);
+            }
+        };
+        runningQueries.add(cancellation);
+        task.setOnSucceeded(event -> {
+            runningQueries.remove(cancellation);
+            if (taskGeneration == generation) {
+                currentTask = null;
+                onResult.accept(term, task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            runningQueries.remove(cancellation);
+            if (taskGeneration == generation) {
+                currentTask = null;
+                onError.accept(task.getException());
+            }
+        });
+        currentTask = task;
+        executor.submit(task);
+    }
+}
@@ -4,6 +4,7 @@ import com.controle.model.Conta;
 import com.controle.model.TipoCategoria;
 import com.controle.model.Transacao;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -13,9 +14,7 @@ import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
-import java.text.NumberFormat;
 import java.time.LocalDate;
-import java.util.Locale;
 
 public class ExtratoController {
 
@@ -27,12 +26,10 @@ public class ExtratoController {
     @FXML private TableView<Transacao> transacoesTable;
     @FXML private TableColumn<Transacao, LocalDate> colData;
     @FXML private TableColumn<Transacao, String> colDescricao;
-    @FXML private TableColumn<Transacao, Double> colValor;
+    @FXML private TableColumn<Transacao, Long> colValor;
 
     private GastoPessoalService service;
     private ObservableList<Transacao> transacoesData = FXCollections.observableArrayList();
-    private Locale brLocale = new Locale("pt", "BR");
-    private NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(brLocale);
 
     public ExtratoController() {
         this.service = new GastoPessoalService();
@@ -43,10 +40,10 @@ public class ExtratoController {
         colData.setCellValueFactory(new PropertyValueFactory<>("data"));
         colDescricao.setCellValueFactory(new PropertyValueFactory<>("descricao"));
 
-        colValor.setCellValueFactory(new PropertyValueFactory<>("valor"));
-        colValor.setCellFactory(column -> new TableCell<Transacao, Double>() {
+        colValor.setCellValueFactory(new PropertyValueFactory<>("valorCentavos"));
+        colValor.setCellFactory(column -> new TableCell<Transacao, Long>() {
             @Override
-            protected void updateItem(Double item, boolean empty) {
+            protected void updateItem(Long item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
@@ -55,12 +52,12 @@ public class ExtratoController {
                     Transacao transacao = getTableView().getItems().get(getIndex());
 
                     if (transacao.getTipo() == TipoCategoria.RECEITA) {
-                        setText(currencyFormat.format(item));
+                        setText(Dinheiro.formatar(item));
                         if (!getStyleClass().contains("balance-label-positive")) {
                             getStyleClass().add("balance-label-positive");
                         }
                     } else {
-                        setText(currencyFormat.format(-item));
+                        setText(Dinheiro.formatar(-item));
                         if (!getStyleClass().contains("balance-label-negative")) {
                             getStyleClass().add("balance-label-negative");
                         }
@@ -73,15 +70,15 @@ public class ExtratoController {
         transacoesTable.setPlaceholder(new Label("Nenhuma transação encontrada para esta conta."));
     }
 
-    public void initData(Conta conta, double saldoAtualCalculado) {
+    public void initData(Conta conta, long saldoAtualCalculado) {
         if (conta == null) {
             return;
         }
 
         contaNomeLabel.setText(conta.getNome());
-        saldoInicialLabel.setText(currencyFormat.format(conta.getSaldoInicial()));
+        saldoInicialLabel.setText(Dinheiro.formatar(conta.getSaldoInicialCentavos()));
 
-        saldoAtualLabel.setText(currencyFormat.format(saldoAtualCalculado));
+        saldoAtualLabel.setText(Dinheiro.formatar(saldoAtualCalculado));
 
         if (saldoAtualCalculado < 0) {
             saldoAtualLabel.getStyleClass().add("balance-label-negative");
@@ -90,11 +87,11 @@ public class ExtratoController {
         }
 
         try {
-            double totalEntradas = service.getTotalReceitasPorConta(conta.getId());
-            double totalSaidas = service.getTotalDespesasPorConta(conta.getId());
+            long totalEntradas = service.getTotalReceitasPorConta(conta.getId());
+            long totalSaidas = service.getTotalDespesasPorConta(conta.getId());
 
-            totalEntradasLabel.setText(currencyFormat.format(totalEntradas));
-            totalSaidasLabel.setText(currencyFormat.format(-totalSaidas));
+            totalEntradasLabel.setText(Dinheiro.formatar(totalEntradas));
+            totalSaidasLabel.setText(Dinheiro.formatar(-totalSaidas));
 
         } catch (RuntimeException e) {
             totalEntradasLabel.setText("Erro");
@@ -2,6 +2,7 @@ package com.controle.view;
 
 import com.controle.service.GastoPessoalService;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -14,6 +15,7 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class MainController {
@@ -24,9 +26,11 @@ public class MainController {
     @FXML private Label fullScreenHintLabel;
 
     private GastoPessoalService service;
+    private Object currentViewController;
 
     private static Timer hintTimer = null;
     private static AtomicInteger hintCounter = new AtomicInteger(0);
+    private static final AtomicBoolean recurringProcessingStarted = new AtomicBoolean(false);
 
     public MainController() {
         this.service = new GastoPessoalService();
@@ -35,12 +39,35 @@ public class MainController {
     @FXML
     public void initialize() {
         handleShowDashboard(null);
+        startRecurringProcessing();
+    }
 
-        Platform.runLater(() -> {
-            System.out.println("MainController: Verificando transações recorrentes pendentes...");
-            service.processarTransacoesRecorrentes();
-            handleShowDashboard(null);
+    // Roda uma única vez por execução do aplicativo, fora da thread do JavaFX; a navegação entre telas
+    // não dispara o processamento de novo
+    private void startRecurringProcessing() {
+        if (!recurringProcessingStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Task<Integer> recurringTask = new Task<>() {
+            @Override
+            protected Integer call() {
+                System.out.println("MainController: Verificando transações recorrentes pendentes...");
+                return service.processarTransacoesRecorrentesDoDia();
+            }
+        };
+        recurringTask.setOnSucceeded(event -> {
+            if (recurringTask.getValue() > 0 && currentViewController instanceof ReportsController) {
+                ((ReportsController) currentViewController).refreshReport();
+            }
         });
+        recurringTask.setOnFailed(event -> {
+            System.err.println("Falha ao processar transações recorrentes: " + recurringTask.getException().getMessage());
+            recurringTask.getException().printStackTrace();
+        });
+
+        Thread thread = new Thread(recurringTask, "RecurringProcessing");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     public void setPrimaryStage(Stage primaryStage) {
@@ -98,6 +125,7 @@ public class MainController {
             if (controller instanceof BaseController) {
                 ((BaseController) controller).setPrimaryStage(this.primaryStage);
             }
+            currentViewController = controller;
 
             contentPane.setCenter(viewRoot);
 
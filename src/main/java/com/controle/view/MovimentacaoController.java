@@ -2,6 +2,7 @@ package com.controle.view;
 
 import com.controle.model.Conta;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -59,10 +60,10 @@ public class MovimentacaoController extends BaseController {
         }
         Conta origem = contaOrigemComboBox.getValue();
         Conta destino = contaDestinoComboBox.getValue();
-        double valor = Double.parseDouble(valorField.getText().replace(",", "."));
+        long valorCentavos = Dinheiro.parse(valorField.getText());
         LocalDate data = dataPicker.getValue();
         try {
-            service.transferirFundos(origem, destino, valor, data);
+            service.transferirFundos(origem, destino, valorCentavos, data);
             showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Movimentação registrada com sucesso!");
             handleLimpar(null);
         } catch (RuntimeException e) {
@@ -88,8 +89,8 @@ public class MovimentacaoController extends BaseController {
             isValid = false;
         }
         try {
-            double valor = Double.parseDouble(valorField.getText().replace(",", "."));
-            if (valor <= 0) {
+            long valorCentavos = Dinheiro.parse(valorField.getText());
+            if (valorCentavos <= 0) {
                 showFieldError(valorField, valorErrorLabel, "Valor deve ser positivo.");
                 isValid = false;
             }
@@ -2,16 +2,15 @@ package com.controle.view;
 
 import com.controle.model.*;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.application.Platform;
-import java.text.NumberFormat;
 import java.time.LocalDate;
-import java.util.Locale;
+import java.util.List;
 import java.util.Optional;
 
 public class RecurringTransactionController extends BaseController {
@@ -29,7 +28,7 @@ public class RecurringTransactionController extends BaseController {
     @FXML private TableView<TransacaoRecorrente> recurringTransactionTable;
     @FXML private TableColumn<TransacaoRecorrente, Integer> colId;
     @FXML private TableColumn<TransacaoRecorrente, String> colDescription;
-    @FXML private TableColumn<TransacaoRecorrente, Double> colValue;
+    @FXML private TableColumn<TransacaoRecorrente, Long> colValue;
     @FXML private TableColumn<TransacaoRecorrente, Categoria> colCategory;
     @FXML private TableColumn<TransacaoRecorrente, Conta> colAccount;
     @FXML private TableColumn<TransacaoRecorrente, Integer> colDiaDoMes;
@@ -52,6 +51,7 @@ public class RecurringTransactionController extends BaseController {
 
     private GastoPessoalService service;
     private ObservableList<TransacaoRecorrente> recurringTransactionsData = FXCollections.observableArrayList();
+    private DebouncedSearch<List<TransacaoRecorrente>> recurringSearch;
     private ObservableList<Categoria> categoriesList = FXCollections.observableArrayList();
     private ObservableList<Conta> accountsList = FXCollections.observableArrayList();
 
@@ -73,9 +73,14 @@ public class RecurringTransactionController extends BaseController {
 
         setupTableColumns();
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            loadRecurringTransactions(newValue);
-        });
+        recurringSearch = new DebouncedSearch<>(
+                service::listarTransacoesRecorrentesPorTermo,
+                (term, result) -> recurringTransactionsData.setAll(result),
+                error -> {
+                    error.printStackTrace();
+                    showAlert(Alert.AlertType.ERROR, "Erro ao carregar recorrências", error.getMessage());
+                });
+        recurringSearch.bind(searchField);
 
         recurringTransactionTable.getSelectionModel().selectedItemProperty().addListener(
                 (observable, oldValue, newValue) -> showRecurringDetails(newValue));
@@ -88,7 +93,7 @@ public class RecurringTransactionController extends BaseController {
     private void setupTableColumns() {
         colId.setCellValueFactory(new PropertyValueFactory<>("id"));
         colDescription.setCellValueFactory(new PropertyValueFactory<>("descricao"));
-        colValue.setCellValueFactory(new PropertyValueFactory<>("valor"));
+        colValue.setCellValueFactory(new PropertyValueFactory<>("valorCentavos"));
         colCategory.setCellValueFactory(new PropertyValueFactory<>("categoria"));
         colAccount.setCellValueFactory(new PropertyValueFactory<>("conta"));
         colDiaDoMes.setCellValueFactory(new PropertyValueFactory<>("diaDoMes"));
@@ -98,10 +103,10 @@ public class RecurringTransactionController extends BaseController {
 
         colValue.setCellFactory(column -> new TableCell<>() {
             @Override
-            protected void updateItem(Double item, boolean empty) {
+            protected void updateItem(Long item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) { setText(null); }
-                else { setText(NumberFormat.getCurrencyInstance(new Locale("pt", "BR")).format(item)); }
+                else { setText(Dinheiro.formatar(item)); }
             }
         });
         colCategory.setCellFactory(column -> new TableCell<>() {
@@ -128,7 +133,7 @@ public class RecurringTransactionController extends BaseController {
         if (tr != null) {
             selectedRecurringId = tr.getId();
             descriptionField.setText(tr.getDescricao());
-            valueField.setText(String.format(Locale.US, "%.2f", tr.getValor()));
+            valueField.setText(Dinheiro.paraTexto(tr.getValorCentavos()));
             typeComboBox.getSelectionModel().select(tr.getTipo());
             categoryComboBox.getSelectionModel().select(tr.getCategoria());
             accountComboBox.getSelectionModel().select(tr.getConta());
@@ -175,12 +180,12 @@ public class RecurringTransactionController extends BaseController {
         Conta conta = accountComboBox.getSelectionModel().getSelectedItem();
         LocalDate dataInicio = dataInicioPicker.getValue();
         LocalDate dataFim = dataFimPicker.getValue();
-        double value = 0.0;
+        long value = 0L;
         int diaDoMes = 0;
         boolean isValid = true;
         if (description == null || description.trim().isEmpty()) { showFieldError(descriptionField, descriptionErrorLabel, "Descrição é obrigatória."); isValid = false; }
         try {
-            value = Double.parseDouble(valueField.getText().replace(",", "."));
+            value = Dinheiro.parse(valueField.getText());
             if (value <= 0) { showFieldError(valueField, valueErrorLabel, "Valor deve ser positivo."); isValid = false; }
         } catch (NumberFormatException e) { showFieldError(valueField, valueErrorLabel, "Valor inválido."); isValid = false; }
         try {
@@ -246,13 +251,7 @@ public class RecurringTransactionController extends BaseController {
     }
 
     private void loadRecurringTransactions(String searchTerm) {
-        try {
-            recurringTransactionsData.clear();
-            recurringTransactionsData.addAll(service.listarTransacoesRecorrentesPorTermo(searchTerm));
-        } catch (Exception e) {
-            e.printStackTrace();
-            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Erro ao carregar recorrências", e.getMessage()));
-        }
+        recurringSearch.searchNow(searchTerm);
     }
 
     private void loadCategoriesForComboBox() {
@@ -0,0 +1,119 @@
+package com.controle.view;
+
+import com.controle.model.ResumoDashboard;
+import com.controle.model.TipoCategoria;
+import com.controle.model.Transacao;
+import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
+import com.controle.util.EscritorPdfPaginado;
+import com.controle.util.EscritorPdfPaginado.Coluna;
+import javafx.concurrent.Task;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+// Gera o relatório do período fora da thread do JavaFX: resumo, despesas por categoria e o extrato
+// completo, lido do banco em streaming e escrito página a página
+public class ReportPdfExportTask extends Task<File> {
+
+    private static final int PROGRESS_STEP = 250;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final GastoPessoalService service;
+    private final ResumoDashboard summary;
+    private final File file;
+
+    public ReportPdfExportTask(GastoPessoalService service, ResumoDashboard summary, File file) {
+        this.service = service;
+        this.summary = summary;
+        this.file = file;
+    }
+
+    @Override
+    protected File call() throws IOException {
+        updateMessage("Contando transações...");
+        int total = service.contarTransacoesPeriodo(summary.getInicio(), summary.getFim(), null);
+
+        try (EscritorPdfPaginado pdf = new EscritorPdfPaginado()) {
+            writeSummary(pdf);
+            writeLedger(pdf, total);
+            if (isCancelled()) {
+                return null;
+            }
+            updateMessage("Salvando arquivo...");
+            pdf.salvar(file);
+            updateMessage("Relatório salvo (" + pdf.getPaginas() + " página(s)).");
+        }
+        return file;
+    }
+
+    private void writeSummary(EscritorPdfPaginado pdf) throws IOException {
+        pdf.titulo("Relatório Financeiro", 18);
+        pdf.linha("Período de: " + summary.getInicio().format(DATE_FORMAT) + " a " + summary.getFim().format(DATE_FORMAT), 12, false);
+        pdf.espaco(10);
+
+        pdf.linha("Balanço do Período", 14, true);
+        pdf.linha("Receitas: " + Dinheiro.formatar(summary.getTotalReceitas()), 12, false);
+        pdf.linha("Despesas: " + Dinheiro.formatar(summary.getTotalDespesas()), 12, false);
+        pdf.linha("Balanço: " + Dinheiro.formatar(summary.getBalanco()), 12, true);
+        pdf.espaco(10);
+
+        pdf.linha("Despesas por Categoria", 14, true);
+        pdf.iniciarTabela(new Coluna[] {Coluna.esquerda(50, 300), Coluna.direita(360, 150)},
+                new String[] {"Categoria", "Valor"}, 12);
+        for (Map.Entry<String, Long> entry : summary.getDespesasPorCategoria().entrySet()) {
+            pdf.linhaTabela(entry.getKey(), Dinheiro.formatar(entry.getValue()));
+        }
+        pdf.encerrarTabela();
+        pdf.espaco(10);
+    }
+
+    private void writeLedger(EscritorPdfPaginado pdf, int total) throws IOException {
+        pdf.linha("Extrato do Período (" + total + " transações)", 14, true);
+        pdf.iniciarTabela(new Coluna[] {
+                        Coluna.esquerda(50, 55),
+                        Coluna.esquerda(108, 190),
+                        Coluna.esquerda(302, 95),
+                        Coluna.esquerda(401, 85),
+                        Coluna.direita(490, 72)},
+                new String[] {"Data", "Descrição", "Categoria", "Conta", "Valor"}, 9);
+
+        int[] written = {0};
+        updateProgress(0, total);
+        try {
+            service.percorrerTransacoesPeriodo(summary.getInicio(), summary.getFim(), null, transacao -> {
+                if (isCancelled()) {
+                    throw new CancellationException();
+                }
+                writeLedgerLine(pdf, transacao);
+                if (++written[0] % PROGRESS_STEP == 0) {
+                    updateProgress(written[0], total);
+                    updateMessage("Exportando transações: " + written[0] + " de " + total);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (CancellationException e) {
+            return;
+        }
+        updateProgress(total, total);
+        pdf.encerrarTabela();
+    }
+
+    private void writeLedgerLine(EscritorPdfPaginado pdf, Transacao transacao) {
+        long signedValue = transacao.getTipo() == TipoCategoria.DESPESA ? -transacao.getValorCentavos() : transacao.getValorCentavos();
+        try {
+            pdf.linhaTabela(
+                    transacao.getData().format(DATE_FORMAT),
+                    transacao.getDescricao(),
+                    transacao.getCategoria() != null ? transacao.getCategoria().getNome() : "",
+                    transacao.getConta() != null ? transacao.getConta().getNome() : "",
+                    Dinheiro.formatar(signedValue));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.controle.view;
 
+import com.controle.model.Conta;
+import com.controle.model.FormatoExportacao;
+import com.controle.model.ResumoDashboard;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -12,28 +17,28 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import javafx.scene.Node;
+import javafx.geometry.Point2D;
 import javafx.scene.chart.PieChart;
-import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
-import javafx.application.Platform;
 import javafx.stage.DirectoryChooser;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import javafx.stage.FileChooser;
 import java.io.File;
-import java.io.IOException;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 public class ReportsController extends BaseController {
 
+    private static final double DEFAULT_CHART_WIDTH = 800;
+
     @FXML private Label fullScreenHintLabel;
     @FXML private Label totalBalanceLabel;
     @FXML private Label totalIncomeLabel;
@@ -44,17 +49,23 @@ public class ReportsController extends BaseController {
     @FXML private Label endDateErrorLabel;
     @FXML private TableView<CategorySummary> categoryExpensesTable;
     @FXML private TableColumn<CategorySummary, String> colCategoryName;
-    @FXML private TableColumn<CategorySummary, Double> colCategoryAmount;
+    @FXML private TableColumn<CategorySummary, Long> colCategoryAmount;
     @FXML private PieChart categoryPieChart;
     @FXML private Button exportPdfButton;
-    @FXML private LineChart<String, Number> patrimonioLineChart;
-    @FXML private CategoryAxis xAxisDate;
+    @FXML private Button exportTransactionsButton;
+    @FXML private ComboBox<Conta> exportAccountComboBox;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private LineChart<Number, Number> patrimonioLineChart;
+    @FXML private NumberAxis xAxisDate;
     @FXML private NumberAxis yAxisValue;
 
     private GastoPessoalService service;
     private ObservableList<CategorySummary> categorySummaryData = FXCollections.observableArrayList();
     private Locale brLocale = new Locale("pt", "BR");
-    private DateTimeFormatter lineChartDateFormatter = DateTimeFormatter.ofPattern("dd/MM");
+    private DateTimeFormatter lineChartDateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private final Tooltip patrimonioTooltip = new Tooltip();
+    private List<ChartDownsampler.Point> patrimonioPoints = Collections.emptyList();
+    private ResumoDashboard currentSummary;
 
     public ReportsController() {
         this.service = new GastoPessoalService();
@@ -64,14 +75,14 @@ public class ReportsController extends BaseController {
     public void initialize() {
         colCategoryName.setCellValueFactory(new PropertyValueFactory<>("categoryName"));
         colCategoryAmount.setCellValueFactory(new PropertyValueFactory<>("totalAmount"));
-        colCategoryAmount.setCellFactory(column -> new TableCell<CategorySummary, Double>() {
+        colCategoryAmount.setCellFactory(column -> new TableCell<CategorySummary, Long>() {
             @Override
-            protected void updateItem(Double item, boolean empty) {
+            protected void updateItem(Long item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) {
                     setText(null);
                 } else {
-                    setText(NumberFormat.getCurrencyInstance(brLocale).format(item));
+                    setText(Dinheiro.formatar(item));
                 }
             }
         });
@@ -81,6 +92,9 @@ public class ReportsController extends BaseController {
 
         categoryPieChart.setLabelsVisible(false);
 
+        setupPatrimonioHover();
+        setupExportAccountComboBox();
+
         LocalDate firstDayOfCurrentMonth = LocalDate.now().withDayOfMonth(1);
         LocalDate today = LocalDate.now();
         startDatePicker.setValue(firstDayOfCurrentMonth);
@@ -88,47 +102,52 @@ public class ReportsController extends BaseController {
 
         clearAllErrors();
 
-        Platform.runLater(() -> {
-            System.out.println("ReportsController: Verificando transações recorrentes pendentes...");
-            service.processarTransacoesRecorrentes();
-            handleGenerateReport(null);
-        });
+        handleGenerateReport(null);
     }
 
-    private void updateTotalBalance() {
-        LocalDate startDate = startDatePicker.getValue();
-        LocalDate endDate = endDatePicker.getValue();
-
-        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
-            totalBalanceLabel.setText("Balanço: R$ 0.00");
-            totalIncomeLabel.setText("Receitas: R$ 0.00");
-            totalExpensesLabel.setText("Despesas: R$ 0.00");
-            totalBalanceLabel.getStyleClass().removeAll("balance-label-positive", "balance-label-negative");
-            return;
-        }
-
-        try {
-            double totalBalance = service.calcularBalancoTotal(startDate, endDate);
-            double totalIncome = service.calcularTotalReceitas(startDate, endDate);
-            double totalExpenses = service.calcularTotalDespesas(startDate, endDate);
-
-            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(brLocale);
-
-            totalBalanceLabel.setText(String.format("Balanço: %s", currencyFormat.format(totalBalance)));
-            totalBalanceLabel.getStyleClass().removeAll("balance-label-positive", "balance-label-negative");
-            if (totalBalance >= 0) {
-                totalBalanceLabel.getStyleClass().add("balance-label-positive");
-            } else {
-                totalBalanceLabel.getStyleClass().add("balance-label-negative");
+    // A primeira opção (null) exporta todas as contas, permitido só em CSV: um extrato OFX representa uma única conta
+    private void setupExportAccountComboBox() {
+        ObservableList<Conta> accounts = FXCollections.observableArrayList();
+        accounts.add(null);
+        accounts.addAll(service.listarTodasContas());
+        exportAccountComboBox.setItems(accounts);
+        exportAccountComboBox.setCellFactory(cell -> new ListCell<Conta>() {
+            @Override
+            protected void updateItem(Conta item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : item == null ? "Todas as contas" : item.getNome());
             }
+        });
+        exportAccountComboBox.setButtonCell(exportAccountComboBox.getCellFactory().call(null));
+    }
 
-            totalIncomeLabel.setText(String.format("Receitas: %s", currencyFormat.format(totalIncome)));
-            totalExpensesLabel.setText(String.format("Despesas: %s", currencyFormat.format(totalExpenses)));
+    // Chamado pelo MainController quando o processamento de recorrências lança novas transações
+    public void refreshReport() {
+        handleGenerateReport(null);
+    }
 
-        } catch (RuntimeException e) {
-            showAlert(Alert.AlertType.ERROR, "Erro ao Gerar Balanço", "Ocorreu um erro ao gerar o balanço: " + e.getMessage());
-            e.printStackTrace();
+    private void resetTotalBalance() {
+        totalBalanceLabel.setText("Balanço: R$ 0.00");
+        totalIncomeLabel.setText("Receitas: R$ 0.00");
+        totalExpensesLabel.setText("Despesas: R$ 0.00");
+        totalBalanceLabel.getStyleClass().removeAll("balance-label-positive", "balance-label-negative");
+    }
+
+    private void updateTotalBalance(ResumoDashboard resumo) {
+        long totalBalance = resumo.getBalanco();
+        long totalIncome = resumo.getTotalReceitas();
+        long totalExpenses = resumo.getTotalDespesas();
+
+        totalBalanceLabel.setText(String.format("Balanço: %s", Dinheiro.formatar(totalBalance)));
+        totalBalanceLabel.getStyleClass().removeAll("balance-label-positive", "balance-label-negative");
+        if (totalBalance >= 0) {
+            totalBalanceLabel.getStyleClass().add("balance-label-positive");
+        } else {
+            totalBalanceLabel.getStyleClass().add("balance-label-negative");
         }
+
+        totalIncomeLabel.setText(String.format("Receitas: %s", Dinheiro.formatar(totalIncome)));
+        totalExpensesLabel.setText(String.format("Despesas: %s", Dinheiro.formatar(totalExpenses)));
     }
 
     @FXML
@@ -136,39 +155,65 @@ public class ReportsController extends BaseController {
         if (!validateDatePickers(startDatePicker, endDatePicker, startDateErrorLabel, endDateErrorLabel)) {
             showAlert(Alert.AlertType.WARNING, "Datas Inválidas", "Por favor, corrija as datas do relatório.");
             exportPdfButton.setDisable(true);
+            exportTransactionsButton.setDisable(true);
+            currentSummary = null;
+            resetTotalBalance();
             return;
         }
 
-        updateTotalBalance();
-
         LocalDate startDate = startDatePicker.getValue();
         LocalDate endDate = endDatePicker.getValue();
 
         try {
-            Map<String, Double> expensesMap = service.calcularDespesasPorCategoria(startDate, endDate);
+            ResumoDashboard resumo = service.gerarDashboard(startDate, endDate);
+            currentSummary = resumo;
+
+            updateTotalBalance(resumo);
+
+            Map<String, Long> expensesMap = resumo.getDespesasPorCategoria();
             categorySummaryData.clear();
             expensesMap.forEach((name, amount) -> categorySummaryData.add(new CategorySummary(name, amount)));
             categoryExpensesTable.refresh();
             updateCategoryPieChart(expensesMap);
 
-            updatePatrimonioLineChart(startDate, endDate);
+            updatePatrimonioLineChart(resumo.getEvolucaoPatrimonio());
 
-            exportPdfButton.setDisable(false);
+            exportPdfButton.setDisable(exportProgressBar.isVisible());
+            exportTransactionsButton.setDisable(exportProgressBar.isVisible());
 
         } catch (RuntimeException e) {
+            currentSummary = null;
+            resetTotalBalance();
             showAlert(Alert.AlertType.ERROR, "Erro ao Gerar Relatório", "Ocorreu um erro ao gerar o relatório: " + e.getMessage());
             e.printStackTrace();
             exportPdfButton.setDisable(true);
+            exportTransactionsButton.setDisable(true);
         }
     }
 
-    private void updatePatrimonioLineChart(LocalDate startDate, LocalDate endDate) {
+    // Um único tooltip para o gráfico inteiro: o ponto exibido é o mais próximo do cursor no eixo X
+    private void setupPatrimonioHover() {
+        patrimonioLineChart.setOnMouseMoved(event -> {
+            if (patrimonioPoints.isEmpty()) {
+                return;
+            }
+            Point2D local = xAxisDate.sceneToLocal(event.getSceneX(), event.getSceneY());
+            double epochDay = xAxisDate.getValueForDisplay(local.getX()).doubleValue();
+            ChartDownsampler.Point point = ChartDownsampler.nearest(patrimonioPoints, epochDay);
+            patrimonioTooltip.setText(point.getDate().format(lineChartDateFormatter) + "\n" +
+                    NumberFormat.getCurrencyInstance(brLocale).format(point.getValue()));
+            patrimonioTooltip.show(patrimonioLineChart, event.getScreenX() + 12, event.getScreenY() + 12);
+        });
+        patrimonioLineChart.setOnMouseExited(event -> patrimonioTooltip.hide());
+    }
+
+    private void updatePatrimonioLineChart(Map<LocalDate, Long> evolucaoCentavos) {
         patrimonioLineChart.getData().clear();
+        patrimonioPoints = Collections.emptyList();
+        patrimonioTooltip.hide();
 
         try {
-            Map<LocalDate, Double> dadosEvolucao = service.getPatrimonioEvolucao(startDate, endDate);
-
-            if(dadosEvolucao.isEmpty()) {
+            if(evolucaoCentavos.isEmpty()) {
                 patrimonioLineChart.setTitle("Sem dados de patrimônio para o período");
                 yAxisValue.setLowerBound(0);
                 yAxisValue.setUpperBound(100);
@@ -178,28 +223,41 @@ public class ReportsController extends BaseController {
 
             patrimonioLineChart.setTitle("Evolução do Patrimônio");
 
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
+            Map<LocalDate, Double> dadosEvolucao = new LinkedHashMap<>();
+            evolucaoCentavos.forEach((data, centavos) -> dadosEvolucao.put(data, Dinheiro.paraReais(centavos)));
+
+            double chartWidth = patrimonioLineChart.getWidth() > 0 ? patrimonioLineChart.getWidth() : DEFAULT_CHART_WIDTH;
+            List<ChartDownsampler.Point> points = ChartDownsampler.downsample(dadosEvolucao, (int) chartWidth);
+
+            XYChart.Series<Number, Number> series = new XYChart.Series<>();
             series.setName("Patrimônio");
 
             double minPatrimonio = Double.MAX_VALUE;
-            double maxPatrimonio = Double.MIN_VALUE;
-
-            for (Map.Entry<LocalDate, Double> entry : dadosEvolucao.entrySet()) {
-                String dataFormatada = entry.getKey().format(lineChartDateFormatter);
-                double valor = entry.getValue();
-                series.getData().add(new XYChart.Data<>(dataFormatada, valor));
+            double maxPatrimonio = -Double.MAX_VALUE;
 
+            for (double valor : dadosEvolucao.values()) {
                 if (valor < minPatrimonio) minPatrimonio = valor;
                 if (valor > maxPatrimonio) maxPatrimonio = valor;
             }
 
+            List<XYChart.Data<Number, Number>> chartData = new ArrayList<>(points.size());
+            for (ChartDownsampler.Point point : points) {
+                chartData.add(new XYChart.Data<>(point.getEpochDay(), point.getValue()));
+            }
+            series.getData().setAll(chartData);
+
+            patrimonioPoints = points;
             patrimonioLineChart.getData().add(series);
 
+            xAxisDate.setAutoRanging(false);
+            xAxisDate.setLowerBound(points.get(0).getEpochDay());
+            xAxisDate.setUpperBound(Math.max(points.get(points.size() - 1).getEpochDay(), points.get(0).getEpochDay() + 1));
+
             double range = maxPatrimonio - minPatrimonio;
             double padding;
 
             if (range == 0) {
-                padding = maxPatrimonio * 0.1;
+                padding = Math.abs(maxPatrimonio) * 0.1;
                 if (padding == 0) padding = 100;
             } else {
                 padding = range * 0.1;
@@ -211,14 +269,6 @@ public class ReportsController extends BaseController {
             double tickUnit = (yAxisValue.getUpperBound() - yAxisValue.getLowerBound()) / 5;
             yAxisValue.setTickUnit(tickUnit);
 
-            for (XYChart.Data<String, Number> data : series.getData()) {
-                Tooltip tooltip = new Tooltip(
-                        data.getXValue() + "\n" +
-                                NumberFormat.getCurrencyInstance(brLocale).format(data.getYValue())
-                );
-                Tooltip.install(data.getNode(), tooltip);
-            }
-
         } catch (Exception e) {
             patrimonioLineChart.setTitle("Erro ao carregar gráfico de patrimônio");
             e.printStackTrace();
@@ -227,9 +277,10 @@ public class ReportsController extends BaseController {
 
     @FXML
     private void handleExportPDF(ActionEvent event) {
-        // ... (seu método de exportar PDF - sem mudanças) ...
-        LocalDate startDate = startDatePicker.getValue();
-        LocalDate endDate = endDatePicker.getValue();
+        if (currentSummary == null) {
+            showAlert(Alert.AlertType.WARNING, "Relatório Indisponível", "Gere o relatório antes de exportar.");
+            return;
+        }
 
         DirectoryChooser directoryChooser = new DirectoryChooser();
         directoryChooser.setTitle("Salvar PDF em...");
@@ -244,62 +295,105 @@ public class ReportsController extends BaseController {
         String fileName = "Relatorio_Financeiro_" + dateString + ".pdf";
         File file = new File(selectedDirectory, fileName);
 
-        try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage();
-            document.addPage(page);
+        ReportPdfExportTask exportTask = new ReportPdfExportTask(service, currentSummary, file);
+        exportPdfButton.setDisable(true);
+        exportTransactionsButton.setDisable(true);
+        exportProgressBar.progressProperty().bind(exportTask.progressProperty());
+        exportProgressBar.setVisible(true);
 
-            PDPageContentStream contentStream = new PDPageContentStream(document, page);
+        exportTask.setOnSucceeded(e -> {
+            finishExport();
+            showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Relatório PDF salvo com sucesso em:\n" + file.getAbsolutePath());
+        });
+        exportTask.setOnFailed(e -> {
+            finishExport();
+            Throwable error = exportTask.getException();
+            error.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Erro ao Salvar PDF", "Não foi possível salvar o arquivo PDF: " + error.getMessage());
+        });
+        exportTask.setOnCancelled(e -> finishExport());
 
-            float y = 750;
+        Thread thread = new Thread(exportTask, "ReportPdfExport");
+        thread.setDaemon(true);
+        thread.start();
+    }
 
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 18, 150, y, "Relatório Financeiro");
-            y -= 30;
+    @FXML
+    private void handleExportTransactions(ActionEvent event) {
+        if (currentSummary == null) {
+            showAlert(Alert.AlertType.WARNING, "Relatório Indisponível", "Gere o relatório antes de exportar.");
+            return;
+        }
 
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12, 70, y,
-                    "Período de: " + startDate.format(dtf) + " a " + endDate.format(dtf));
-            y -= 25;
+        Conta account = exportAccountComboBox.getValue();
+        Integer accountId = account != null ? account.getId() : null;
 
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 14, 70, y, "Balanço do Período");
-            y -= 20;
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12, 70, y, totalIncomeLabel.getText());
-            y -= 20;
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12, 70, y, totalExpensesLabel.getText());
-            y -= 20;
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12, 70, y, totalBalanceLabel.getText());
-            y -= 30;
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Exportar transações do período");
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("Planilha CSV (*.csv)", "*.csv");
+        FileChooser.ExtensionFilter ofxFilter = new FileChooser.ExtensionFilter("Extrato OFX (*.ofx)", "*.ofx");
+        fileChooser.getExtensionFilters().addAll(csvFilter, ofxFilter);
+        fileChooser.setInitialFileName("Transacoes_" + (account != null ? account.getNome().replaceAll("[^\\p{L}\\p{N}]+", "_") + "_" : "")
+                + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        File selectedFile = fileChooser.showSaveDialog(primaryStage);
 
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 14, 70, y, "Despesas por Categoria");
-            y -= 20;
+        if (selectedFile == null) {
+            showAlert(Alert.AlertType.INFORMATION, "Cancelado", "Exportação de transações cancelada.");
+            return;
+        }
 
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12, 70, y, "Categoria");
-            writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12, 350, y, "Valor");
-            y -= 15;
+        FormatoExportacao format = fileChooser.getSelectedExtensionFilter() == ofxFilter
+                || selectedFile.getName().toLowerCase(Locale.ROOT).endsWith(".ofx")
+                ? FormatoExportacao.OFX : FormatoExportacao.CSV;
+        if (format == FormatoExportacao.OFX && accountId == null) {
+            showAlert(Alert.AlertType.WARNING, "Conta Obrigatória",
+                    "O extrato OFX representa uma única conta. Selecione a conta a exportar ou use o formato CSV.");
+            return;
+        }
+        File file = selectedFile.getName().contains(".")
+                ? selectedFile
+                : new File(selectedFile.getParentFile(), selectedFile.getName() + "." + format.getExtensao());
+        LocalDate startDate = currentSummary.getInicio();
+        LocalDate endDate = currentSummary.getFim();
 
-            NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(brLocale);
-            for (CategorySummary summary : categorySummaryData) {
-                writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12, 70, y, summary.getCategoryName());
-                writeText(contentStream, new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12, 350, y, currencyFormat.format(summary.getTotalAmount()));
-                y -= 15;
+        Task<Integer> exportTask = new Task<>() {
+            @Override
+            protected Integer call() {
+                int total = service.contarTransacoesPeriodo(startDate, endDate, accountId);
+                updateProgress(0, total);
+                int exported = service.exportarTransacoes(startDate, endDate, accountId, format, file.toPath(),
+                        count -> updateProgress(count, total));
+                updateProgress(total, total);
+                return exported;
             }
+        };
 
-            contentStream.close();
-            document.save(file);
+        exportPdfButton.setDisable(true);
+        exportTransactionsButton.setDisable(true);
+        exportProgressBar.progressProperty().bind(exportTask.progressProperty());
+        exportProgressBar.setVisible(true);
 
-            showAlert(Alert.AlertType.INFORMATION, "Sucesso", "Relatório PDF salvo com sucesso em:\n" + file.getAbsolutePath());
+        exportTask.setOnSucceeded(e -> {
+            finishExport();
+            showAlert(Alert.AlertType.INFORMATION, "Sucesso", exportTask.getValue() + " transação(ões) exportada(s) para:\n" + file.getAbsolutePath());
+        });
+        exportTask.setOnFailed(e -> {
+            finishExport();
+            Throwable error = exportTask.getException();
+            error.printStackTrace();
+            showAlert(Alert.AlertType.ERROR, "Erro ao Exportar", "Não foi possível exportar as transações: " + error.getMessage());
+        });
 
-        } catch (IOException e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Erro ao Salvar PDF", "Não foi possível salvar o arquivo PDF: " + e.getMessage());
-        }
+        Thread thread = new Thread(exportTask, "TransactionExport");
+        thread.setDaemon(true);
+        thread.start();
     }
 
-    private void writeText(PDPageContentStream contentStream, PDType1Font font, int fontSize, float x, float y, String text) throws IOException {
-        contentStream.beginText();
-        contentStream.setFont(font, fontSize);
-        contentStream.newLineAtOffset(x, y);
-        contentStream.showText(text);
-        contentStream.endText();
+    private void finishExport() {
+        exportProgressBar.progressProperty().unbind();
+        exportProgressBar.setVisible(false);
+        exportPdfButton.setDisable(currentSummary == null);
+        exportTransactionsButton.setDisable(currentSummary == null);
     }
 
     private boolean validateDatePickers(DatePicker start, DatePicker end, Label startError, Label endError) {
@@ -322,17 +416,17 @@ public class ReportsController extends BaseController {
         return isValid;
     }
 
-    private void updateCategoryPieChart(Map<String, Double> expensesMap) {
+    private void updateCategoryPieChart(Map<String, Long> expensesMap) {
         ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
         if (expensesMap.isEmpty()) {
             categoryPieChart.setData(FXCollections.emptyObservableList());
             categoryPieChart.setTitle("Distribuição de Despesas (Nenhum dado)");
             return;
         }
-        double totalExpenses = expensesMap.values().stream().mapToDouble(Double::doubleValue).sum();
+        long totalExpenses = expensesMap.values().stream().mapToLong(Long::longValue).sum();
         expensesMap.forEach((categoryName, amount) -> {
-            String label = String.format("%s (%.2f%%)", categoryName, (amount / totalExpenses * 100));
-            pieChartData.add(new PieChart.Data(label, amount));
+            String label = String.format("%s (%.2f%%)", categoryName, (amount * 100.0 / totalExpenses));
+            pieChartData.add(new PieChart.Data(label, Dinheiro.paraReais(amount)));
         });
         categoryPieChart.setData(pieChartData);
         categoryPieChart.setTitle("Distribuição de Despesas por Categoria");
@@ -346,12 +440,12 @@ public class ReportsController extends BaseController {
 
     public static class CategorySummary {
         private final String categoryName;
-        private final Double totalAmount;
-        public CategorySummary(String categoryName, Double totalAmount) {
+        private final Long totalAmount;
+        public CategorySummary(String categoryName, Long totalAmount) {
             this.categoryName = categoryName;
             this.totalAmount = totalAmount;
         }
         public String getCategoryName() { return categoryName; }
-        public Double getTotalAmount() { return totalAmount; }
+        public Long getTotalAmount() { return totalAmount; }
     }
 }
\ No newline at end of file
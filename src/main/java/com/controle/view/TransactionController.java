@@ -2,21 +2,30 @@ package com.controle.view;
 
 import com.controle.model.*;
 import com.controle.service.GastoPessoalService;
+import com.controle.util.Dinheiro;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.application.Platform;
-import java.text.NumberFormat;
 import java.time.LocalDate;
-import java.util.Locale;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Optional;
 
 public class TransactionController extends BaseController {
 
+    private static final int PAGE_SIZE = 100;
+    private static final double LOAD_MORE_THRESHOLD = 0.9;
+
     private int selectedTransactionId = 0;
+    private Transacao selectedTransaction;
+    private String currentSearchTerm = "";
+    private boolean hasMorePages = false;
+    private boolean loadingNextPage = false;
 
     @FXML private TextField descriptionField;
     @FXML private TextField valueField;
@@ -27,7 +36,7 @@ public class TransactionController extends BaseController {
     @FXML private TableView<Transacao> transactionTable;
     @FXML private TableColumn<Transacao, Integer> colId;
     @FXML private TableColumn<Transacao, String> colDescription;
-    @FXML private TableColumn<Transacao, Double> colValue;
+    @FXML private TableColumn<Transacao, Long> colValue;
     @FXML private TableColumn<Transacao, LocalDate> colDate;
     @FXML private TableColumn<Transacao, TipoCategoria> colType;
     @FXML private TableColumn<Transacao, Categoria> colCategory;
@@ -48,6 +57,7 @@ public class TransactionController extends BaseController {
     private ObservableList<Transacao> transactionsData = FXCollections.observableArrayList();
     private ObservableList<Categoria> categoriesList = FXCollections.observableArrayList();
     private ObservableList<Conta> accountsList = FXCollections.observableArrayList();
+    private DebouncedSearch<List<Transacao>> transactionSearch;
 
     public TransactionController() {
         this.service = new GastoPessoalService();
@@ -69,10 +79,17 @@ public class TransactionController extends BaseController {
 
         transactionTable.setItems(transactionsData);
         transactionTable.setPlaceholder(new Label("Nenhuma transação encontrada"));
+        transactionTable.skinProperty().addListener((observable, oldSkin, newSkin) -> setupInfiniteScroll());
 
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            loadTransactions(newValue);
-        });
+        transactionSearch = new DebouncedSearch<>(
+                (term, cancellation) -> service.listarTransacoesPagina(term, null, PAGE_SIZE, cancellation),
+                this::showFirstPage,
+                error -> {
+                    loadingNextPage = false;
+                    error.printStackTrace();
+                    showAlert(Alert.AlertType.ERROR, "Erro ao carregar transações", error.getMessage());
+                });
+        transactionSearch.bind(searchField);
 
         loadTransactions("");
         setFormMode(false);
@@ -85,13 +102,13 @@ public class TransactionController extends BaseController {
     private void setupTableColumns() {
         colId.setCellValueFactory(new PropertyValueFactory<>("id"));
         colDescription.setCellValueFactory(new PropertyValueFactory<>("descricao"));
-        colValue.setCellValueFactory(new PropertyValueFactory<>("valor"));
+        colValue.setCellValueFactory(new PropertyValueFactory<>("valorCentavos"));
         colValue.setCellFactory(column -> new TableCell<>() {
             @Override
-            protected void updateItem(Double item, boolean empty) {
+            protected void updateItem(Long item, boolean empty) {
                 super.updateItem(item, empty);
                 if (empty || item == null) { setText(null); }
-                else { setText(NumberFormat.getCurrencyInstance(new Locale("pt", "BR")).format(item)); }
+                else { setText(Dinheiro.formatar(item)); }
             }
         });
         colDate.setCellValueFactory(new PropertyValueFactory<>("data"));
@@ -118,8 +135,9 @@ public class TransactionController extends BaseController {
         clearAllErrors();
         if (transacao != null) {
             selectedTransactionId = transacao.getId();
+            selectedTransaction = transacao;
             descriptionField.setText(transacao.getDescricao());
-            valueField.setText(String.format(Locale.US, "%.2f", transacao.getValor()));
+            valueField.setText(Dinheiro.paraTexto(transacao.getValorCentavos()));
             datePicker.setValue(transacao.getData());
             typeComboBox.getSelectionModel().select(transacao.getTipo());
             categoryComboBox.getSelectionModel().select(transacao.getCategoria());
@@ -146,6 +164,7 @@ public class TransactionController extends BaseController {
         categoryComboBox.getSelectionModel().clearSelection();
         accountComboBox.getSelectionModel().clearSelection();
         selectedTransactionId = 0;
+        selectedTransaction = null;
         transactionTable.getSelectionModel().clearSelection();
         setFormMode(false);
         clearAllErrors();
@@ -157,8 +176,8 @@ public class TransactionController extends BaseController {
     private void handleAddOrUpdateTransaction(ActionEvent event) {
         clearAllErrors();
         String description = descriptionField.getText();
-        double value;
-        try { value = Double.parseDouble(valueField.getText().replace(",", ".")); }
+        long value;
+        try { value = Dinheiro.parse(valueField.getText()); }
         catch (NumberFormatException e) {
             showFieldError(valueField, valueErrorLabel, "Valor inválido.");
             return;
@@ -185,35 +204,34 @@ public class TransactionController extends BaseController {
         String categoriaNome = (category != null) ? category.getNome() : null;
         String contaNome = conta.getNome();
         if (type == TipoCategoria.DESPESA && category != null) {
-            Orcamento orcamento = service.getOrcamentoCategoria(category, date.getMonthValue(), date.getYear());
-            if (orcamento != null) {
-                double gastoAtual = service.getGastoAtualCategoria(category, date.getMonthValue(), date.getYear());
-                double valorAntigo = 0.0;
-                if (selectedTransactionId > 0) {
-                    Transacao transacaoOriginal = service.buscarTransacaoPorId(selectedTransactionId);
-                    if (transacaoOriginal != null && transacaoOriginal.getCategoria() != null && transacaoOriginal.getCategoria().getId() == category.getId()) {
-                        valorAntigo = transacaoOriginal.getValor();
-                    }
+            ConsumoOrcamento consumo = service.getConsumoOrcamento(category, date.getMonthValue(), date.getYear());
+            if (consumo != null) {
+                long valorAntigo = 0L;
+                Transacao transacaoOriginal = selectedTransaction;
+                if (transacaoOriginal != null && transacaoOriginal.getTipo() == TipoCategoria.DESPESA
+                        && transacaoOriginal.getCategoria() != null && transacaoOriginal.getCategoria().getId() == category.getId()
+                        && YearMonth.from(transacaoOriginal.getData()).equals(YearMonth.from(date))) {
+                    valorAntigo = transacaoOriginal.getValorCentavos();
                 }
-                double gastoAjustado = gastoAtual - valorAntigo;
-                double novoTotalProjetado = gastoAjustado + value;
-                double limite = orcamento.getValorLimite();
+                long gastoAjustado = consumo.getGastoCentavos() - valorAntigo;
+                long novoTotalProjetado = gastoAjustado + value;
+                long limite = consumo.getValorLimiteCentavos();
                 if (novoTotalProjetado > limite) {
                     Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
                     confirmAlert.setTitle("Orçamento Excedido");
                     confirmAlert.setHeaderText("Atenção: Esta transação ultrapassa o seu orçamento!");
                     confirmAlert.setContentText(String.format(
                             "Categoria: %s\n" +
-                                    "Limite do Mês: R$ %.2f\n\n" +
-                                    "Gasto Atual: R$ %.2f\n" +
-                                    "Com esta transação: R$ %.2f\n" +
-                                    "(Valor excedido: R$ %.2f)\n\n" +
+                                    "Limite do Mês: %s\n\n" +
+                                    "Gasto Atual: %s\n" +
+                                    "Com esta transação: %s\n" +
+                                    "(Valor excedido: %s)\n\n" +
                                     "Deseja salvar mesmo assim?",
                             category.getNome(),
-                            limite,
-                            gastoAjustado,
-                            novoTotalProjetado,
-                            novoTotalProjetado - limite
+                            Dinheiro.formatar(limite),
+                            Dinheiro.formatar(gastoAjustado),
+                            Dinheiro.formatar(novoTotalProjetado),
+                            Dinheiro.formatar(novoTotalProjetado - limite)
                     ));
                     Optional<ButtonType> result = confirmAlert.showAndWait();
                     if (result.isEmpty() || result.get() != ButtonType.OK) {
@@ -277,14 +295,56 @@ public class TransactionController extends BaseController {
         accountComboBox.setItems(accountsList);
     }
 
+    private void setupInfiniteScroll() {
+        for (Node node : transactionTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMax() * LOAD_MORE_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+
     private void loadTransactions(String searchTerm) {
-        try {
-            transactionsData.clear();
-            transactionsData.addAll(service.listarTransacoesPorTermo(searchTerm));
-        } catch (Exception e) {
-            e.printStackTrace();
-            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Erro ao carregar transações", e.getMessage()));
+        transactionSearch.searchNow(searchTerm);
+    }
+
+    private void showFirstPage(String searchTerm, List<Transacao> page) {
+        currentSearchTerm = searchTerm;
+        hasMorePages = page.size() == PAGE_SIZE;
+        loadingNextPage = false;
+        transactionsData.setAll(page);
+        transactionTable.scrollTo(0);
+    }
+
+    // Busca a próxima página fora da thread do JavaFX; nada é anexado enquanto houver busca pendente
+    // ou se o termo mudou durante o carregamento
+    private void loadNextPage() {
+        if (!hasMorePages || loadingNextPage || transactionSearch.isPending()) {
+            return;
         }
+        loadingNextPage = true;
+        String searchTerm = currentSearchTerm;
+        Transacao lastLoaded = transactionsData.isEmpty() ? null : transactionsData.get(transactionsData.size() - 1);
+        transactionSearch.runFollowUp(
+                cancellation -> service.listarTransacoesPagina(searchTerm, lastLoaded, PAGE_SIZE, cancellation),
+                page -> {
+                    loadingNextPage = false;
+                    if (!searchTerm.equals(currentSearchTerm)) {
+                        return;
+                    }
+                    hasMorePages = page.size() == PAGE_SIZE;
+                    transactionsData.addAll(page);
+                },
+                error -> {
+                    loadingNextPage = false;
+                    hasMorePages = false;
+                    error.printStackTrace();
+                    showAlert(Alert.AlertType.ERROR, "Erro ao carregar transações", error.getMessage());
+                });
     }
 
     @Override